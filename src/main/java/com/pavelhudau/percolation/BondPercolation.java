@@ -0,0 +1,178 @@
+package com.pavelhudau.percolation;
+
+import java.util.Arrays;
+
+/**
+ * Bond percolation: all sites are present, and it is bonds between neighbor sites that open.
+ * Bonds are numbered from 0 to numberOfBonds() - 1 in the order of their smaller site.
+ * Uses the same weighted quick union with virtual top and bottom as site Percolation,
+ * top sites are always connected to the virtual top and bottom sites to the virtual bottom.
+ */
+public class BondPercolation {
+    private final Lattice lattice;
+    // [2 * bond] and [2 * bond + 1] - sites that the bond connects.
+    private final int[] bondSites;
+    private final boolean[] openBonds;
+    // Site s is s + 1, virtual top is the first, virtual bottom is the last.
+    private final WeightedQuickUnion ids;
+    private int openBondsCnt = 0;
+
+    // creates n-by-n grid, with all bonds initially blocked
+    public BondPercolation(int n) {
+        this(squareLattice(n));
+    }
+
+    /**
+     * Creates a system of an arbitrary lattice, with all bonds initially blocked.
+     *
+     * @param lattice Lattice of sites.
+     */
+    public BondPercolation(Lattice lattice) {
+        if (lattice == null) {
+            throw new IllegalArgumentException("lattice can not be null");
+        }
+        this.lattice = lattice;
+        this.bondSites = findBonds(lattice);
+        this.openBonds = new boolean[this.bondSites.length / 2];
+        this.ids = new WeightedQuickUnion(lattice.size() + 2);
+        this.connectVirtualSites();
+    }
+
+    // returns the number of bonds
+    public int numberOfBonds() {
+        return this.openBonds.length;
+    }
+
+    /**
+     * One of the sites that a bond connects.
+     *
+     * @param bond A bond.
+     * @return Smaller site of the bond.
+     */
+    public int bondFrom(int bond) {
+        this.validateBond(bond);
+        return this.bondSites[2 * bond];
+    }
+
+    /**
+     * One of the sites that a bond connects.
+     *
+     * @param bond A bond.
+     * @return Bigger site of the bond.
+     */
+    public int bondTo(int bond) {
+        this.validateBond(bond);
+        return this.bondSites[2 * bond + 1];
+    }
+
+    // opens the bond if it is not open already
+    public void openBond(int bond) {
+        this.validateBond(bond);
+        this.openBondIdx(bond);
+    }
+
+    // is the bond open?
+    public boolean isOpenBond(int bond) {
+        this.validateBond(bond);
+        return this.openBonds[bond];
+    }
+
+    // returns the number of open bonds
+    public int numberOfOpenBonds() {
+        return this.openBondsCnt;
+    }
+
+    // does the system percolate?
+    public boolean percolates() {
+        return this.ids.root(0) == this.ids.root(this.lattice.size() + 1);
+    }
+
+    /**
+     * Opens a bond without validating it.
+     *
+     * @param bond A bond.
+     */
+    void openBondIdx(int bond) {
+        if (this.openBonds[bond]) {
+            return;
+        }
+
+        this.openBonds[bond] = true;
+        this.ids.union(this.bondSites[2 * bond] + 1, this.bondSites[2 * bond + 1] + 1);
+        this.openBondsCnt++;
+    }
+
+    /**
+     * Blocks all bonds again, reusing the arrays.
+     */
+    void reset() {
+        Arrays.fill(this.openBonds, false);
+        this.ids.reset();
+        this.openBondsCnt = 0;
+        this.connectVirtualSites();
+    }
+
+    private void connectVirtualSites() {
+        for (int site = 0; site < this.lattice.size(); site++) {
+            if (this.lattice.isTop(site)) {
+                this.ids.union(site + 1, 0);
+            }
+            if (this.lattice.isBottom(site)) {
+                this.ids.union(site + 1, this.lattice.size() + 1);
+            }
+        }
+    }
+
+    /**
+     * Counts bonds of a lattice without building the system.
+     *
+     * @param lattice Lattice of sites.
+     * @return Number of bonds that BondPercolation of the lattice has.
+     */
+    static int countBonds(Lattice lattice) {
+        int[] neighbors = new int[lattice.maxNeighbors()];
+        // Every bond is listed by both of its sites, count it once by the smaller site.
+        int bondsCnt = 0;
+        for (int site = 0; site < lattice.size(); site++) {
+            int neighborsCount = lattice.neighbors(site, neighbors);
+            for (int k = 0; k < neighborsCount; k++) {
+                if (neighbors[k] > site) {
+                    bondsCnt++;
+                }
+            }
+        }
+        return bondsCnt;
+    }
+
+    private static int[] findBonds(Lattice lattice) {
+        int[] neighbors = new int[lattice.maxNeighbors()];
+        int[] bondSites = new int[2 * countBonds(lattice)];
+        int bond = 0;
+        for (int site = 0; site < lattice.size(); site++) {
+            int neighborsCount = lattice.neighbors(site, neighbors);
+            Arrays.sort(neighbors, 0, neighborsCount);
+            for (int k = 0; k < neighborsCount; k++) {
+                if (neighbors[k] > site) {
+                    bondSites[2 * bond] = site;
+                    bondSites[2 * bond + 1] = neighbors[k];
+                    bond++;
+                }
+            }
+        }
+
+        return bondSites;
+    }
+
+    private static Lattice squareLattice(int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be > 0");
+        }
+        return new SquareLattice(n);
+    }
+
+    private void validateBond(int bond) {
+        if (bond < 0 || bond >= this.openBonds.length) {
+            throw new IllegalArgumentException("bond must ne between withing interval [0, numberOfBonds())");
+        }
+    }
+}
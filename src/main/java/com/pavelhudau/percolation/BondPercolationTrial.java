@@ -0,0 +1,55 @@
+package com.pavelhudau.percolation;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A single bond percolation experiment: opens bonds of a lattice in random order
+ * until the system percolates. The bonds permutation and the percolation are reset in place between runs,
+ * so one instance runs any number of trials without allocating.
+ */
+class BondPercolationTrial implements PercolationTrial {
+    private final int[] bonds;
+    private final BondPercolation percolation;
+
+    BondPercolationTrial(Lattice lattice) {
+        this.percolation = new BondPercolation(lattice);
+        this.bonds = new int[this.percolation.numberOfBonds()];
+    }
+
+    /**
+     * Runs one trial.
+     *
+     * @param uniform Source of random numbers, returns an integer in [0, bound) for a given bound.
+     * @return Fraction of open bonds at the moment the system percolates.
+     */
+    @Override
+    public double run(IntUnaryOperator uniform) {
+        this.shuffleBonds(uniform);
+        this.percolation.reset();
+        boolean percolates = this.percolation.percolates();
+        for (int i = 0; i < this.bonds.length && !percolates; i++) {
+            this.percolation.openBondIdx(this.bonds[i]);
+            percolates = this.percolation.percolates();
+        }
+
+        if (!percolates) {
+            throw new IllegalStateException("Exhausted all bonds but still didn't achieve percolation. Must be an error in the algorithm.");
+        }
+
+        return this.bonds.length == 0 ? 0 : (double) this.percolation.numberOfOpenBonds() / this.bonds.length;
+    }
+
+    private void shuffleBonds(IntUnaryOperator uniform) {
+        // Always shuffle from the same order, so the result depends only on the random numbers
+        // and not on the trials run before.
+        for (int i = 0; i < this.bonds.length; i++) {
+            this.bonds[i] = i;
+        }
+        for (int i = this.bonds.length - 1; i > 0; i--) {
+            int randPosition = uniform.applyAsInt(i + 1);
+            int ith = this.bonds[i];
+            this.bonds[i] = this.bonds[randPosition];
+            this.bonds[randPosition] = ith;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.pavelhudau.percolation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Integers stored outside of java heap, either in direct byte buffers or in a memory mapped file.
+ * A single buffer can not be bigger than 2 GiB, so integers are split into segments of equal size.
+ */
+class BufferIntArray implements IntArray {
+    // 2^28 integers, 1 GiB per segment.
+    static final int SEGMENT_SHIFT = 28;
+    private final IntBuffer[] segments;
+    private final int length;
+    private final int segmentShift;
+    private final int segmentMask;
+
+    private BufferIntArray(IntBuffer[] segments, int length, int segmentShift) {
+        this.segments = segments;
+        this.length = length;
+        this.segmentShift = segmentShift;
+        this.segmentMask = (1 << segmentShift) - 1;
+    }
+
+    /**
+     * Allocates integers in off-heap direct byte buffers.
+     *
+     * @param length       Number of integers.
+     * @param segmentShift Segment holds 2^segmentShift integers.
+     * @return Array of zeros.
+     */
+    static BufferIntArray direct(int length, int segmentShift) {
+        IntBuffer[] segments = new IntBuffer[segmentsCount(length, segmentShift)];
+        for (int s = 0; s < segments.length; s++) {
+            int bytes = segmentLength(length, segmentShift, s) * Integer.BYTES;
+            segments[s] = ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder()).asIntBuffer();
+        }
+        return new BufferIntArray(segments, length, segmentShift);
+    }
+
+    /**
+     * Maps integers to a file. The file is truncated, so the array starts with zeros.
+     * Mappings stay valid after the channel is closed, therefore no handle is kept.
+     *
+     * @param file         File to map.
+     * @param length       Number of integers.
+     * @param segmentShift Segment holds 2^segmentShift integers.
+     * @return Array of zeros.
+     * @throws IOException if the file can not be mapped.
+     */
+    static BufferIntArray mapped(Path file, int length, int segmentShift) throws IOException {
+        IntBuffer[] segments = new IntBuffer[segmentsCount(length, segmentShift)];
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = 0;
+            for (int s = 0; s < segments.length; s++) {
+                long bytes = (long) segmentLength(length, segmentShift, s) * Integer.BYTES;
+                segments[s] = channel.map(FileChannel.MapMode.READ_WRITE, position, bytes)
+                        .order(ByteOrder.nativeOrder())
+                        .asIntBuffer();
+                position += bytes;
+            }
+        }
+        return new BufferIntArray(segments, length, segmentShift);
+    }
+
+    @Override
+    public int length() {
+        return this.length;
+    }
+
+    @Override
+    public int get(int i) {
+        return this.segments[i >>> this.segmentShift].get(i & this.segmentMask);
+    }
+
+    @Override
+    public void set(int i, int value) {
+        this.segments[i >>> this.segmentShift].put(i & this.segmentMask, value);
+    }
+
+    private static int segmentsCount(int length, int segmentShift) {
+        return (int) (((long) length + (1L << segmentShift) - 1) >>> segmentShift);
+    }
+
+    private static int segmentLength(int length, int segmentShift, int segment) {
+        long start = (long) segment << segmentShift;
+        return (int) Math.min(1L << segmentShift, length - start);
+    }
+}
@@ -0,0 +1,85 @@
+package com.pavelhudau.percolation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes sweep checkpoints on a background thread, so trials do not wait for the disk.
+ * <p>
+ * At most one write is queued, a newer checkpoint replaces the queued one since only the latest matters.
+ * Checkpoints are offered at most once per interval.
+ */
+class CheckpointWriter implements AutoCloseable {
+    private final Path file;
+    private final long intervalNanos;
+    private final ThreadPoolExecutor executor;
+    private long lastOfferNanos;
+    private volatile IOException failure;
+
+    /**
+     * @param file           Checkpoint file.
+     * @param intervalMillis Min time between checkpoints.
+     */
+    CheckpointWriter(Path file, long intervalMillis) {
+        this.file = file;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.lastOfferNanos = System.nanoTime();
+        this.executor = new ThreadPoolExecutor(
+                1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "percolation-checkpoint");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardOldestPolicy());
+    }
+
+    /**
+     * Schedules a write of the checkpoint if the interval since the previous one has passed.
+     *
+     * @param checkpoint Checkpoint, must not change afterwards.
+     */
+    void offer(SweepCheckpoint checkpoint) {
+        long now = System.nanoTime();
+        if (now - this.lastOfferNanos < this.intervalNanos) {
+            return;
+        }
+
+        this.lastOfferNanos = now;
+        this.executor.execute(() -> {
+            try {
+                checkpoint.write(this.file);
+            } catch (IOException e) {
+                this.failure = e;
+            }
+        });
+    }
+
+    /**
+     * Waits for scheduled writes and writes the final checkpoint.
+     *
+     * @param checkpoint Final checkpoint.
+     * @throws IOException if this or any earlier write failed.
+     */
+    void finish(SweepCheckpoint checkpoint) throws IOException {
+        this.close();
+        if (this.failure != null) {
+            throw this.failure;
+        }
+        checkpoint.write(this.file);
+    }
+
+    @Override
+    public void close() {
+        this.executor.shutdown();
+        try {
+            this.executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.pavelhudau.percolation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.BitSet;
+
+/**
+ * Percolation for very large grids, up to 46340-by-46340 (2^31 sites).
+ * <p>
+ * Unlike Percolation it keeps a single integer per site. Parent and tree size share the same array:
+ * a value v &gt; 0 is a link to parent v - 1, a value v &lt;= 0 marks a root of a tree of size 1 - v.
+ * So an array of zeros is a forest of single site trees and new storage does not need to be initialized.
+ * There are no virtual top and bottom sites, instead every root has a bit that tells whether its cluster
+ * touches the top row and another one for the bottom row. Open sites are a bitset as well.
+ * <p>
+ * The integers can be kept on heap, in off-heap direct buffers or in a memory mapped file.
+ */
+public class CompactPercolation {
+    // n * n must fit into an int.
+    static final int MAX_N = 46340;
+    private final int n;
+    private final IntArray parents;
+    private final BitSet openSites;
+    private final BitSet rootsTouchingTop;
+    private final BitSet rootsTouchingBottom;
+    private int openSitesCnt = 0;
+    private boolean percolates = false;
+
+    // creates n-by-n grid, with all sites initially blocked and stored on heap
+    public CompactPercolation(int n) {
+        this(validate(n), new HeapIntArray(n * n));
+    }
+
+    CompactPercolation(int n, IntArray parents) {
+        validate(n);
+        if (parents.length() != n * n) {
+            throw new IllegalArgumentException("parents must have n * n length");
+        }
+        this.n = n;
+        this.parents = parents;
+        this.openSites = new BitSet(n * n);
+        this.rootsTouchingTop = new BitSet(n * n);
+        this.rootsTouchingBottom = new BitSet(n * n);
+    }
+
+    /**
+     * Creates n-by-n grid, with all sites initially blocked, that keeps union find outside of java heap.
+     *
+     * @param n Grid size.
+     * @return Percolation backed by direct byte buffers.
+     */
+    public static CompactPercolation offHeap(int n) {
+        return new CompactPercolation(n, BufferIntArray.direct(validate(n) * n, BufferIntArray.SEGMENT_SHIFT));
+    }
+
+    /**
+     * Creates n-by-n grid, with all sites initially blocked, that keeps union find in a memory mapped file.
+     *
+     * @param n    Grid size.
+     * @param file File to keep union find in. Existing content is discarded.
+     * @return Percolation backed by the file.
+     * @throws IOException if the file can not be mapped.
+     */
+    public static CompactPercolation mapped(int n, Path file) throws IOException {
+        return new CompactPercolation(n, BufferIntArray.mapped(file, validate(n) * n, BufferIntArray.SEGMENT_SHIFT));
+    }
+
+    // opens the site (row, col) if it is not open already
+    public void open(int row, int col) {
+        int i = this.rowColToIdx(row, col);
+        if (this.openSites.get(i)) {
+            return;
+        }
+
+        this.openSites.set(i);
+        if (row == 1) {
+            this.rootsTouchingTop.set(i);
+        }
+        if (row == this.n) {
+            this.rootsTouchingBottom.set(i);
+        }
+        this.percolates = this.percolates || this.touchesTopAndBottom(i);
+
+        if (col > 1) {
+            this.unionIfOpen(i, i - 1);
+        }
+        if (col < this.n) {
+            this.unionIfOpen(i, i + 1);
+        }
+        if (row > 1) {
+            this.unionIfOpen(i, i - this.n);
+        }
+        if (row < this.n) {
+            this.unionIfOpen(i, i + this.n);
+        }
+
+        this.openSitesCnt++;
+    }
+
+    // is the site (row, col) open?
+    public boolean isOpen(int row, int col) {
+        return this.openSites.get(this.rowColToIdx(row, col));
+    }
+
+    // is the site (row, col) full?
+    public boolean isFull(int row, int col) {
+        int i = this.rowColToIdx(row, col);
+        return this.openSites.get(i) && this.rootsTouchingTop.get(this.root(i));
+    }
+
+    // returns the number of open sites
+    public int numberOfOpenSites() {
+        return this.openSitesCnt;
+    }
+
+    // does the system percolate?
+    public boolean percolates() {
+        return this.percolates;
+    }
+
+    private static int validate(int n) {
+        if (n < 1 || n > MAX_N) {
+            throw new IllegalArgumentException("n must be between withing interval [1, " + MAX_N + "]");
+        }
+        return n;
+    }
+
+    private int rowColToIdx(int row, int col) {
+        if (row < 1 || row > n) {
+            throw new IllegalArgumentException("row must ne between withing interval [1, n]");
+        }
+        if (col < 1 || col > n) {
+            throw new IllegalArgumentException("col must ne between withing interval [1, n]");
+        }
+        return (col - 1) + this.n * (row - 1);
+    }
+
+    private void unionIfOpen(int i, int j) {
+        if (!this.openSites.get(j)) {
+            return;
+        }
+
+        int rooti = this.root(i);
+        int rootj = this.root(j);
+        if (rooti == rootj) {
+            return;
+        }
+
+        int sizei = 1 - this.parents.get(rooti);
+        int sizej = 1 - this.parents.get(rootj);
+        int root;
+        int child;
+        if (sizei > sizej) {
+            root = rooti;
+            child = rootj;
+        } else {
+            root = rootj;
+            child = rooti;
+        }
+
+        this.parents.set(child, root + 1);
+        this.parents.set(root, 1 - (sizei + sizej));
+        if (this.rootsTouchingTop.get(child)) {
+            this.rootsTouchingTop.set(root);
+        }
+        if (this.rootsTouchingBottom.get(child)) {
+            this.rootsTouchingBottom.set(root);
+        }
+        this.percolates = this.percolates || this.touchesTopAndBottom(root);
+    }
+
+    private boolean touchesTopAndBottom(int root) {
+        return this.rootsTouchingTop.get(root) && this.rootsTouchingBottom.get(root);
+    }
+
+    private int root(int i) {
+        int parent = this.parents.get(i) - 1;
+        while (parent >= 0) {
+            int grandParent = this.parents.get(parent) - 1;
+            if (grandParent < 0) {
+                return parent;
+            }
+            // flattens the tree
+            this.parents.set(i, grandParent + 1);
+            i = grandParent;
+            parent = this.parents.get(i) - 1;
+        }
+
+        return i;
+    }
+}
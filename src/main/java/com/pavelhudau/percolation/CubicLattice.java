@@ -0,0 +1,19 @@
+package com.pavelhudau.percolation;
+
+/**
+ * n-by-n-by-n simple cubic lattice, every site is connected to 6 neighbors along the axes.
+ */
+public class CubicLattice extends GridLattice {
+    private static final int[][] OFFSETS = {{
+            -1, 0, 0,
+            1, 0, 0,
+            0, -1, 0,
+            0, 1, 0,
+            0, 0, -1,
+            0, 0, 1
+    }};
+
+    public CubicLattice(int n) {
+        super(n, n, n, OFFSETS);
+    }
+}
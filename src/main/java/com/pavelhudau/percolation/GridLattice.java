@@ -0,0 +1,193 @@
+package com.pavelhudau.percolation;
+
+/**
+ * Lattice of sites on a width-by-height-by-depth grid, site (x, y, z) is x + width * (y + height * z).
+ * The system percolates along y, top sites have y = 0 and bottom sites have y = height - 1.
+ * <p>
+ * Neighbors are described by tables of (dx, dy, dz) offsets, each offset is -1, 0 or 1.
+ * Linear offsets of the tables are precomputed, so finding a neighbor takes a bounds check and an addition,
+ * and sites away from the lattice faces skip the bounds check.
+ * Lattices where sites have different neighborhoods, e.g. honeycomb, have several tables.
+ */
+public abstract class GridLattice implements Lattice {
+    private final int width;
+    private final int height;
+    private final int depth;
+    // [table][3 * k .. 3 * k + 2] - (dx, dy, dz) of neighbor k.
+    private final int[][] coordinateOffsets;
+    // [table][k] - site index offset of neighbor k.
+    private final int[][] siteOffsets;
+    private final int maxNeighbors;
+
+    /**
+     * @param width             Number of sites along x.
+     * @param height            Number of sites along y, the direction of percolation.
+     * @param depth             Number of sites along z, 1 for 2D lattices.
+     * @param coordinateOffsets Neighbor tables, every table is a sequence of (dx, dy, dz) triples.
+     */
+    protected GridLattice(int width, int height, int depth, int[][] coordinateOffsets) {
+        if (width < 1 || height < 1 || depth < 1) {
+            throw new IllegalArgumentException("width, height and depth must be > 0");
+        }
+        // Percolation adds two virtual sites.
+        if ((long) width * height * depth > Integer.MAX_VALUE - 2) {
+            throw new IllegalArgumentException("Lattice is too big");
+        }
+
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+        this.coordinateOffsets = coordinateOffsets;
+        for (int[] offsets : coordinateOffsets) {
+            for (int offset : offsets) {
+                if (Math.abs(offset) > 1) {
+                    throw new IllegalArgumentException("offsets must be -1, 0 or 1");
+                }
+            }
+        }
+        this.siteOffsets = new int[coordinateOffsets.length][];
+        int maxNeighbors = 0;
+        for (int table = 0; table < coordinateOffsets.length; table++) {
+            int[] offsets = coordinateOffsets[table];
+            this.siteOffsets[table] = new int[offsets.length / 3];
+            for (int k = 0; k < offsets.length / 3; k++) {
+                this.siteOffsets[table][k] = offsets[3 * k] + width * (offsets[3 * k + 1] + height * offsets[3 * k + 2]);
+            }
+            maxNeighbors = Math.max(maxNeighbors, this.siteOffsets[table].length);
+        }
+        this.maxNeighbors = maxNeighbors;
+    }
+
+    /**
+     * Builds a lattice kind by its name, as used in job files and sweep checkpoints.
+     *
+     * @param name Square, triangular, honeycomb or cubic.
+     * @param n    Number of sites along every side.
+     * @return Lattice of the kind.
+     */
+    public static GridLattice named(String name, int n) {
+        switch (name) {
+            case "square":
+                return new SquareLattice(n);
+            case "triangular":
+                return new TriangularLattice(n);
+            case "honeycomb":
+                return new HoneycombLattice(n);
+            case "cubic":
+                return new CubicLattice(n);
+            default:
+                throw new IllegalArgumentException("Unknown lattice " + name + ", expected square, triangular, honeycomb or cubic");
+        }
+    }
+
+    /**
+     * Name of a lattice kind that named() builds.
+     *
+     * @param lattice A lattice.
+     * @return Name for named(), or null if named() can not rebuild the lattice, e.g. a subclass.
+     */
+    public static String nameOf(Lattice lattice) {
+        Class<?> kind = lattice.getClass();
+        if (kind == SquareLattice.class) {
+            return "square";
+        } else if (kind == TriangularLattice.class) {
+            return "triangular";
+        } else if (kind == HoneycombLattice.class) {
+            return "honeycomb";
+        } else if (kind == CubicLattice.class) {
+            return "cubic";
+        }
+        return null;
+    }
+
+    // number of sites along x
+    public int width() {
+        return this.width;
+    }
+
+    // number of sites along y, the direction of percolation
+    public int height() {
+        return this.height;
+    }
+
+    // number of sites along z
+    public int depth() {
+        return this.depth;
+    }
+
+    @Override
+    public int size() {
+        return this.width * this.height * this.depth;
+    }
+
+    @Override
+    public int maxNeighbors() {
+        return this.maxNeighbors;
+    }
+
+    @Override
+    public int neighbors(int site, int[] neighbors) {
+        int yz = site / this.width;
+        int x = site - yz * this.width;
+        int y = this.depth == 1 ? yz : yz % this.height;
+        int z = this.depth == 1 ? 0 : yz / this.height;
+        int table = this.offsetsTable(x, y, z);
+        int[] offsets = this.coordinateOffsets[table];
+        int[] siteOffsets = this.siteOffsets[table];
+        if (this.isInterior(x, y, z)) {
+            // Offsets do not exceed 1, so every neighbor of an interior site is on the lattice.
+            for (int k = 0; k < siteOffsets.length; k++) {
+                neighbors[k] = site + siteOffsets[k];
+            }
+            return siteOffsets.length;
+        }
+
+        int count = 0;
+        for (int k = 0; k < siteOffsets.length; k++) {
+            int nx = x + offsets[3 * k];
+            int ny = y + offsets[3 * k + 1];
+            int nz = z + offsets[3 * k + 2];
+            if (nx >= 0 && nx < this.width
+                    && ny >= 0 && ny < this.height
+                    && nz >= 0 && nz < this.depth) {
+                neighbors[count] = site + siteOffsets[k];
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public boolean isTop(int site) {
+        if (this.depth == 1) {
+            return site < this.width;
+        }
+        return (site / this.width) % this.height == 0;
+    }
+
+    @Override
+    public boolean isBottom(int site) {
+        if (this.depth == 1) {
+            return site >= this.width * (this.height - 1);
+        }
+        return (site / this.width) % this.height == this.height - 1;
+    }
+
+    private boolean isInterior(int x, int y, int z) {
+        return x > 0 && x < this.width - 1
+                && y > 0 && y < this.height - 1
+                && (this.depth == 1 || (z > 0 && z < this.depth - 1));
+    }
+
+    /**
+     * Selects the neighbors table of a site.
+     *
+     * @param x Site x.
+     * @param y Site y.
+     * @param z Site z.
+     * @return Index of a table passed to the constructor.
+     */
+    protected int offsetsTable(int x, int y, int z) {
+        return 0;
+    }
+}
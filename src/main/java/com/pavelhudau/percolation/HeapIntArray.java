@@ -0,0 +1,27 @@
+package com.pavelhudau.percolation;
+
+/**
+ * Integers stored in a plain java array.
+ */
+class HeapIntArray implements IntArray {
+    private final int[] values;
+
+    HeapIntArray(int length) {
+        this.values = new int[length];
+    }
+
+    @Override
+    public int length() {
+        return this.values.length;
+    }
+
+    @Override
+    public int get(int i) {
+        return this.values[i];
+    }
+
+    @Override
+    public void set(int i, int value) {
+        this.values[i] = value;
+    }
+}
@@ -0,0 +1,30 @@
+package com.pavelhudau.percolation;
+
+/**
+ * n-by-n honeycomb lattice, every site is connected to 3 neighbors.
+ * It is drawn as a brick wall: every site is connected to its left and right neighbors,
+ * and to either its bottom or its top neighbor, alternating like bricks do.
+ */
+public class HoneycombLattice extends GridLattice {
+    private static final int[][] OFFSETS = {
+            {
+                    -1, 0, 0,
+                    1, 0, 0,
+                    0, 1, 0
+            },
+            {
+                    -1, 0, 0,
+                    1, 0, 0,
+                    0, -1, 0
+            }
+    };
+
+    public HoneycombLattice(int n) {
+        super(n, n, 1, OFFSETS);
+    }
+
+    @Override
+    protected int offsetsTable(int x, int y, int z) {
+        return (x + y) % 2;
+    }
+}
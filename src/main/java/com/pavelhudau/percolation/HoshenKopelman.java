@@ -0,0 +1,231 @@
+package com.pavelhudau.percolation;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Labels clusters of a whole n-by-n configuration at once with Hoshen–Kopelman algorithm.
+ * <p>
+ * The grid is split into horizontal strips. Every strip is scanned row by row in parallel and every open site
+ * is merged with its open left and upper neighbors, as long as they are in the same strip.
+ * Strips own disjoint ranges of the union find, so they do not interfere.
+ * Then clusters are merged across strip boundaries, which is only n sites per boundary.
+ * <p>
+ * Uses the same weighted quick union as Percolation, site (row, col) is element row * n + col.
+ */
+public class HoshenKopelman {
+    // Strips of a uniformly random field take about the same time, so a few per worker absorb scheduling delays.
+    // More strips do not pay off, every strip boundary adds a row of n sites to the sequential merge pass.
+    private static final int STRIPS_PER_WORKER = 4;
+    private final int n;
+    private final boolean percolates;
+    // Sizes of clusters, largest first.
+    private final int[] clusterSizes;
+
+    /**
+     * Labels clusters of open sites.
+     *
+     * @param n           Grid size.
+     * @param openSites   Open sites, site (row, col) is openSites[row * n + col] for 0-based row and col.
+     * @param parallelism Number of worker threads.
+     */
+    public HoshenKopelman(int n, boolean[] openSites, int parallelism) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be > 0");
+        }
+        if (openSites == null || openSites.length != (long) n * n) {
+            throw new IllegalArgumentException("openSites must have n * n length");
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be > 0");
+        }
+
+        this.n = n;
+        WeightedQuickUnion clusters = new WeightedQuickUnion(n * n);
+        int stripRows = Math.max(1, (n + parallelism * STRIPS_PER_WORKER - 1) / (parallelism * STRIPS_PER_WORKER));
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new StripLabeling(n, openSites, clusters, 0, n, stripRows));
+        } finally {
+            pool.shutdown();
+        }
+
+        for (int row = stripRows; row < n; row += stripRows) {
+            for (int i = row * n; i < (row + 1) * n; i++) {
+                if (openSites[i] && openSites[i - n]) {
+                    clusters.union(i, i - n);
+                }
+            }
+        }
+
+        this.percolates = percolates(n, openSites, clusters);
+        this.clusterSizes = clusterSizes(openSites, clusters);
+    }
+
+    /**
+     * Generates a random configuration where every site is open with probability p.
+     * Row r draws from the random stream of trial r of the seed, so the field does not depend on the way it is labeled.
+     *
+     * @param n    Grid size.
+     * @param p    Site vacancy probability in [0, 1].
+     * @param seed Seed of the random streams.
+     * @return Open sites, site (row, col) is at row * n + col.
+     */
+    public static boolean[] randomField(int n, double p, long seed) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be > 0");
+        }
+        if (p < 0 || p > 1) {
+            throw new IllegalArgumentException("p must be between withing interval [0, 1]");
+        }
+
+        boolean[] openSites = new boolean[n * n];
+        TrialRandom random = new TrialRandom();
+        int bound = Integer.MAX_VALUE;
+        for (int row = 0; row < n; row++) {
+            random.startTrial(seed, row);
+            for (int i = row * n; i < (row + 1) * n; i++) {
+                openSites[i] = random.applyAsInt(bound) < p * bound;
+            }
+        }
+        return openSites;
+    }
+
+    // grid size
+    public int n() {
+        return this.n;
+    }
+
+    // does the system percolate?
+    public boolean percolates() {
+        return this.percolates;
+    }
+
+    // number of clusters of open sites
+    public int clusterCount() {
+        return this.clusterSizes.length;
+    }
+
+    // size of the largest cluster, 0 if there are no open sites
+    public int largestClusterSize() {
+        return this.clusterSizes.length == 0 ? 0 : this.clusterSizes[0];
+    }
+
+    /**
+     * Sizes of all clusters.
+     *
+     * @return Number of sites in every cluster, largest first.
+     */
+    public int[] clusterSizes() {
+        return this.clusterSizes.clone();
+    }
+
+    private static boolean percolates(int n, boolean[] openSites, WeightedQuickUnion clusters) {
+        BitSet rootsTouchingTop = new BitSet(n * n);
+        for (int i = 0; i < n; i++) {
+            if (openSites[i]) {
+                rootsTouchingTop.set(clusters.root(i));
+            }
+        }
+        for (int i = (n - 1) * n; i < n * n; i++) {
+            if (openSites[i] && rootsTouchingTop.get(clusters.root(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] clusterSizes(boolean[] openSites, WeightedQuickUnion clusters) {
+        int[] sizes = new int[16];
+        int count = 0;
+        for (int i = 0; i < openSites.length; i++) {
+            if (openSites[i] && clusters.root(i) == i) {
+                if (count == sizes.length) {
+                    sizes = Arrays.copyOf(sizes, 2 * count);
+                }
+                sizes[count++] = clusters.size(i);
+            }
+        }
+
+        // Roots depend on the order of unions, so sizes are sorted to not depend on the number of strips.
+        sizes = Arrays.copyOf(sizes, count);
+        Arrays.sort(sizes);
+        for (int i = 0, j = count - 1; i < j; i++, j--) {
+            int ith = sizes[i];
+            sizes[i] = sizes[j];
+            sizes[j] = ith;
+        }
+        return sizes;
+    }
+
+    /**
+     * Labels rows [lo, hi) split into strips of stripRows rows, only touches union find elements of those rows.
+     */
+    private static class StripLabeling extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int n;
+        private final boolean[] openSites;
+        private final WeightedQuickUnion clusters;
+        private final int lo;
+        private final int hi;
+        private final int stripRows;
+
+        StripLabeling(int n, boolean[] openSites, WeightedQuickUnion clusters, int lo, int hi, int stripRows) {
+            this.n = n;
+            this.openSites = openSites;
+            this.clusters = clusters;
+            this.lo = lo;
+            this.hi = hi;
+            this.stripRows = stripRows;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.hi - this.lo <= this.stripRows) {
+                this.labelStrip();
+                return;
+            }
+
+            // Splits on a strip boundary, so boundaries are the same as in the merge pass.
+            int strips = (this.hi - this.lo + this.stripRows - 1) / this.stripRows;
+            int mid = this.lo + (strips / 2) * this.stripRows;
+            invokeAll(
+                    new StripLabeling(this.n, this.openSites, this.clusters, this.lo, mid, this.stripRows),
+                    new StripLabeling(this.n, this.openSites, this.clusters, mid, this.hi, this.stripRows));
+        }
+
+        private void labelStrip() {
+            for (int row = this.lo; row < this.hi; row++) {
+                for (int col = 0; col < this.n; col++) {
+                    int i = row * this.n + col;
+                    if (!this.openSites[i]) {
+                        continue;
+                    }
+                    if (col > 0 && this.openSites[i - 1]) {
+                        this.clusters.union(i, i - 1);
+                    }
+                    if (row > this.lo && this.openSites[i - this.n]) {
+                        this.clusters.union(i, i - this.n);
+                    }
+                }
+            }
+        }
+    }
+
+    // test client
+    // usage: HoshenKopelman n p seed [parallelism]
+    public static void main(String[] args) {
+        int n = Integer.parseInt(args[0]);
+        double p = Double.parseDouble(args[1]);
+        long seed = Long.parseLong(args[2]);
+        int parallelism = args.length > 3
+                ? Integer.parseInt(args[3])
+                : Runtime.getRuntime().availableProcessors();
+        HoshenKopelman labeling = new HoshenKopelman(n, randomField(n, p, seed), parallelism);
+        System.out.println("percolates =              " + labeling.percolates());
+        System.out.println("clusters =                " + labeling.clusterCount());
+        System.out.println("largest cluster size =    " + labeling.largestClusterSize());
+    }
+}
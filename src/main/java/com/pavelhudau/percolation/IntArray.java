@@ -0,0 +1,13 @@
+package com.pavelhudau.percolation;
+
+/**
+ * Fixed length array of integers, regardless of where the integers are stored.
+ * Newly created array is filled with zeros.
+ */
+interface IntArray {
+    int length();
+
+    int get(int i);
+
+    void set(int i, int value);
+}
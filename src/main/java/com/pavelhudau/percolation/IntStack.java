@@ -0,0 +1,40 @@
+package com.pavelhudau.percolation;
+
+import java.util.Arrays;
+
+/**
+ * Growable stack of primitive integers, used for undo logs.
+ */
+class IntStack {
+    private int[] items = new int[16];
+    private int size = 0;
+
+    void push(int item) {
+        if (this.size == this.items.length) {
+            this.items = Arrays.copyOf(this.items, 2 * this.size);
+        }
+        this.items[this.size++] = item;
+    }
+
+    int pop() {
+        if (this.size == 0) {
+            throw new IllegalStateException("Stack is empty");
+        }
+        return this.items[--this.size];
+    }
+
+    int get(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IllegalArgumentException("index must ne between withing interval [0, size())");
+        }
+        return this.items[index];
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    void clear() {
+        this.size = 0;
+    }
+}
@@ -0,0 +1,47 @@
+package com.pavelhudau.percolation;
+
+/**
+ * Sites of a percolation system and the way they are connected.
+ * Sites are numbered from 0 to size() - 1. The system percolates when a top site is connected to a bottom site.
+ * Implementations must be immutable, so that a lattice can be shared by trials running in parallel.
+ */
+public interface Lattice {
+    /**
+     * Number of sites.
+     *
+     * @return Number of sites.
+     */
+    int size();
+
+    /**
+     * Max number of neighbors of a single site.
+     *
+     * @return Length of a buffer that fits neighbors of any site.
+     */
+    int maxNeighbors();
+
+    /**
+     * Finds neighbors of a site.
+     *
+     * @param site      A site.
+     * @param neighbors Buffer to write neighbors to, at least maxNeighbors() long.
+     * @return Number of neighbors written to the buffer.
+     */
+    int neighbors(int site, int[] neighbors);
+
+    /**
+     * Whether a site is in the top layer.
+     *
+     * @param site A site.
+     * @return True if the site is connected to the virtual top.
+     */
+    boolean isTop(int site);
+
+    /**
+     * Whether a site is in the bottom layer.
+     *
+     * @param site A site.
+     * @return True if the site is connected to the virtual bottom.
+     */
+    boolean isBottom(int site);
+}
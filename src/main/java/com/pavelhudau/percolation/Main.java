@@ -1,8 +1,283 @@
 package com.pavelhudau.percolation;
 
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Batch runner of percolation threshold sweeps.
+ * <p>
+ * Reads jobs from a file, one job per line: n trials lattice [site|bond].
+ * Lattice is one of square, triangular, honeycomb or cubic, blank lines and lines starting with # are skipped.
+ * Jobs run concurrently on a fixed number of threads, every job runs its trials on the thread it got.
+ * A result line is printed as soon as a job finishes, so lines come in completion order and carry the job number.
+ * Throughput is the number of sites (or bonds in bond mode) opened per second of wall time.
+ */
 public class Main {
+    static final String CSV = "csv";
+    static final String JSON = "json";
+    private static final String CSV_HEADER =
+            "job,n,lattice,mode,trials,mean,stddev,confidenceLo,confidenceHi,wallMillis,openedPerSecond";
+
+    /**
+     * Runs jobs and prints results.
+     *
+     * @param jobLines Lines of a job file.
+     * @param format   Output format, csv or json (JSON lines).
+     * @param threads  Max number of jobs that run at the same time.
+     * @param seed     Batch seed, every job derives its own seed from it and its job number.
+     * @param out      Stream to print results to.
+     * @throws ExecutionException   if a job fails.
+     * @throws InterruptedException if interrupted while waiting for jobs.
+     */
+    static void run(List<String> jobLines, String format, int threads, long seed, PrintStream out)
+            throws ExecutionException, InterruptedException {
+        if (!CSV.equals(format) && !JSON.equals(format)) {
+            throw new IllegalArgumentException("format must be csv or json");
+        }
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be > 0");
+        }
+
+        List<Job> jobs = parseJobs(jobLines);
+        if (CSV.equals(format)) {
+            out.println(CSV_HEADER);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CompletionService<JobResult> results = new ExecutorCompletionService<>(executor);
+            for (Job job : jobs) {
+                results.submit(() -> job.run(seed));
+            }
+            for (int i = 0; i < jobs.size(); i++) {
+                JobResult result = results.take().get();
+                out.println(CSV.equals(format) ? result.toCsv() : result.toJson());
+                out.flush();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    static List<Job> parseJobs(List<String> jobLines) {
+        List<Job> jobs = new ArrayList<>();
+        for (int line = 0; line < jobLines.size(); line++) {
+            String text = jobLines.get(line).trim();
+            if (text.isEmpty() || text.startsWith("#")) {
+                continue;
+            }
+
+            String[] tokens = text.split("\\s+");
+            if (tokens.length < 3 || tokens.length > 4) {
+                throw new IllegalArgumentException("Line " + (line + 1) + ": expected n trials lattice [site|bond]");
+            }
+            int n;
+            int trials;
+            try {
+                n = Integer.parseInt(tokens[0]);
+                trials = Integer.parseInt(tokens[1]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Line " + (line + 1) + ": n and trials must be integers", e);
+            }
+            if (n <= 0 || trials <= 0) {
+                throw new IllegalArgumentException("Line " + (line + 1) + ": n and trials must be > 0");
+            }
+            String lattice = tokens[2].toLowerCase(Locale.ROOT);
+            GridLattice.named(lattice, 1);
+            boolean bonds = tokens.length == 4 && "bond".equalsIgnoreCase(tokens[3]);
+            if (tokens.length == 4 && !bonds && !"site".equalsIgnoreCase(tokens[3])) {
+                throw new IllegalArgumentException("Line " + (line + 1) + ": mode must be site or bond");
+            }
+            jobs.add(new Job(jobs.size() + 1, n, trials, lattice, bonds));
+        }
+        return jobs;
+    }
+
+    /**
+     * A single line of a job file.
+     */
+    static final class Job {
+        private final int number;
+        private final int n;
+        private final int trials;
+        private final String lattice;
+        private final boolean bonds;
+
+        Job(int number, int n, int trials, String lattice, boolean bonds) {
+            this.number = number;
+            this.n = n;
+            this.trials = trials;
+            this.lattice = lattice;
+            this.bonds = bonds;
+        }
+
+        /**
+         * Runs the job.
+         *
+         * @param seed Batch seed.
+         * @return Statistics of the job.
+         */
+        JobResult run(long seed) {
+            // Mixes in the job number, so that identical job lines give independent results.
+            long jobSeed = TrialRandom.trialSeed(seed, this.number);
+            Lattice lattice = GridLattice.named(this.lattice, this.n);
+            long start = System.nanoTime();
+            // The job already has a thread of the batch pool, its trials run right on that thread.
+            PercolationStats stats = this.bonds
+                    ? PercolationStats.bonds(lattice, this.trials, jobSeed, 1)
+                    : new PercolationStats(lattice, this.trials, jobSeed, 1);
+            long wallNanos = System.nanoTime() - start;
+            int units = this.bonds ? BondPercolation.countBonds(lattice) : lattice.size();
+            return new JobResult(this, stats, units, wallNanos);
+        }
+    }
+
+    /**
+     * Statistics of a job and how long it took.
+     * A trial stops as soon as the system percolates, having opened threshold * units sites or bonds,
+     * so the total number of opened units is the sum of thresholds, i.e. mean * trials * units.
+     */
+    static final class JobResult {
+        private final Job job;
+        private final PercolationStats stats;
+        private final double wallMillis;
+        private final double openedPerSecond;
+
+        /**
+         * @param job       The job.
+         * @param stats     Statistics of its trials.
+         * @param units     Number of sites, or bonds in bond mode, of the lattice.
+         * @param wallNanos How long the job took.
+         */
+        JobResult(Job job, PercolationStats stats, int units, long wallNanos) {
+            this.job = job;
+            this.stats = stats;
+            this.wallMillis = wallNanos / 1e6;
+            double opened = stats.mean() * stats.trials() * units;
+            this.openedPerSecond = opened / Math.max(wallNanos, 1) * 1e9;
+        }
+
+        String toCsv() {
+            return this.job.number +
+                    "," + this.job.n +
+                    "," + this.job.lattice +
+                    "," + this.mode() +
+                    "," + this.stats.trials() +
+                    "," + this.stats.mean() +
+                    "," + this.stats.stddev() +
+                    "," + this.stats.confidenceLo() +
+                    "," + this.stats.confidenceHi() +
+                    "," + String.format(Locale.ROOT, "%.3f", this.wallMillis) +
+                    "," + String.format(Locale.ROOT, "%.0f", this.openedPerSecond);
+        }
+
+        String toJson() {
+            return "{\"job\":" + this.job.number +
+                    ",\"n\":" + this.job.n +
+                    ",\"lattice\":\"" + this.job.lattice + "\"" +
+                    ",\"mode\":\"" + this.mode() + "\"" +
+                    ",\"trials\":" + this.stats.trials() +
+                    ",\"mean\":" + jsonNumber(this.stats.mean()) +
+                    ",\"stddev\":" + jsonNumber(this.stats.stddev()) +
+                    ",\"confidenceLo\":" + jsonNumber(this.stats.confidenceLo()) +
+                    ",\"confidenceHi\":" + jsonNumber(this.stats.confidenceHi()) +
+                    ",\"wallMillis\":" + String.format(Locale.ROOT, "%.3f", this.wallMillis) +
+                    ",\"openedPerSecond\":" + String.format(Locale.ROOT, "%.0f", this.openedPerSecond) +
+                    "}";
+        }
+
+        private String mode() {
+            return this.job.bonds ? "bond" : "site";
+        }
+
+        private static String jsonNumber(double value) {
+            // JSON has no NaN, e.g. stddev of a single trial.
+            return Double.isNaN(value) || Double.isInfinite(value) ? "null" : Double.toString(value);
+        }
+    }
+
+    /**
+     * Command line options.
+     */
+    static final class Options {
+        static final String USAGE = "usage: Main jobsFile [-format csv|json] [-threads threads] [-seed seed]";
+        private String jobsFile;
+        private String format = CSV;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private long seed = 1;
+
+        /**
+         * Parses command line arguments.
+         *
+         * @param args Arguments, the jobs file followed by options, every option has a value.
+         * @return Parsed options.
+         * @throws IllegalArgumentException with the usage if an option is unknown, misses its value or has a bad value.
+         */
+        static Options parse(String[] args) {
+            if (args.length == 0 || args[0].startsWith("-")) {
+                throw new IllegalArgumentException("Missing jobsFile\n" + USAGE);
+            }
+
+            Options options = new Options();
+            options.jobsFile = args[0];
+            for (int i = 1; i < args.length; i += 2) {
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Missing value of option " + args[i] + "\n" + USAGE);
+                }
+                String value = args[i + 1];
+                try {
+                    switch (args[i]) {
+                        case "-format":
+                            options.format = value.toLowerCase(Locale.ROOT);
+                            break;
+                        case "-threads":
+                            options.threads = Integer.parseInt(value);
+                            break;
+                        case "-seed":
+                            options.seed = Long.parseLong(value);
+                            break;
+                        default:
+                            throw new IllegalArgumentException("Unknown option " + args[i] + "\n" + USAGE);
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Bad value of option " + args[i] + ": " + value + "\n" + USAGE, e);
+                }
+            }
+            return options;
+        }
+
+        String jobsFile() {
+            return this.jobsFile;
+        }
+
+        String format() {
+            return this.format;
+        }
+
+        int threads() {
+            return this.threads;
+        }
+
+        long seed() {
+            return this.seed;
+        }
+    }
 
-    public static void main(String[] args) {
-        // write your code here
+    // usage: Main jobsFile [-format csv|json] [-threads threads] [-seed seed]
+    public static void main(String[] args) throws IOException, ExecutionException, InterruptedException {
+        Options options = Options.parse(args);
+        List<String> jobLines = Files.readAllLines(Paths.get(options.jobsFile()), StandardCharsets.UTF_8);
+        run(jobLines, options.format(), options.threads(), options.seed(), System.out);
     }
 }
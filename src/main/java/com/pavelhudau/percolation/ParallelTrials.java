@@ -0,0 +1,78 @@
+package com.pavelhudau.percolation;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs a range of percolation trials on a Fork/Join pool.
+ * <p>
+ * Every trial draws its random numbers from its own stream, seeded from the sweep seed and the trial index.
+ * Thus a trial produces the same threshold no matter which worker runs it or how many workers there are.
+ * <p>
+ * Scratch state of a trial is kept per worker thread, so a sweep builds one trial per worker
+ * no matter how many tasks and batches it runs.
+ */
+class ParallelTrials extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private final ThreadLocal<Worker> workers;
+    private final long seed;
+    private final long firstTrial;
+    private final double[] thresholds;
+    private final int lo;
+    private final int hi;
+    private final int leafSize;
+
+    /**
+     * @param workers    Scratch state of the current worker thread, shared by all tasks and batches of a sweep.
+     * @param seed       Sweep seed.
+     * @param firstTrial Index of the first trial to run.
+     * @param thresholds Trial results, thresholds[i] receives the result of trial firstTrial + i.
+     * @param count      Number of trials to run.
+     * @param leafSize   Max number of trials run sequentially by a single task.
+     */
+    ParallelTrials(ThreadLocal<Worker> workers, long seed, long firstTrial, double[] thresholds, int count, int leafSize) {
+        this(workers, seed, firstTrial, thresholds, 0, count, leafSize);
+    }
+
+    private ParallelTrials(ThreadLocal<Worker> workers, long seed, long firstTrial, double[] thresholds, int lo, int hi, int leafSize) {
+        this.workers = workers;
+        this.seed = seed;
+        this.firstTrial = firstTrial;
+        this.thresholds = thresholds;
+        this.lo = lo;
+        this.hi = hi;
+        this.leafSize = leafSize;
+    }
+
+    @Override
+    protected void compute() {
+        if (this.hi - this.lo <= this.leafSize) {
+            this.runSequentially();
+            return;
+        }
+
+        int mid = this.lo + (this.hi - this.lo) / 2;
+        invokeAll(
+                new ParallelTrials(this.workers, this.seed, this.firstTrial, this.thresholds, this.lo, mid, this.leafSize),
+                new ParallelTrials(this.workers, this.seed, this.firstTrial, this.thresholds, mid, this.hi, this.leafSize));
+    }
+
+    private void runSequentially() {
+        Worker worker = this.workers.get();
+        for (int i = this.lo; i < this.hi; i++) {
+            worker.random.startTrial(this.seed, this.firstTrial + i);
+            this.thresholds[i] = worker.trial.run(worker.random);
+        }
+    }
+
+    /**
+     * Scratch state of a worker thread: a trial that resets itself on every run and its random stream.
+     */
+    static final class Worker {
+        final PercolationTrial trial;
+        final TrialRandom random = new TrialRandom();
+
+        Worker(PercolationTrial trial) {
+            this.trial = trial;
+        }
+    }
+}
@@ -1,51 +1,232 @@
 package com.pavelhudau.percolation;
 
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+
 public class Percolation {
-    private static final int BLOCKED_VALUE = -1;
-    private static final int NOT_A_ROOT = 0;
-    private final int n;
-    private final int[] rootToTreeSize;
-    private final int[] ids;
+    private final Lattice lattice;
+    // Grid size for (row, col) API, 0 if the lattice is not a 2D grid.
+    private final int rows;
+    private final int cols;
+    private final int[] neighbors;
+    private final boolean[] openSites;
+    // Sites with virtual top (first) and virtual bottom (last), answers whether the system percolates.
+    private final WeightedQuickUnion ids;
+    // Sites only, without virtual sites. Unlike ids it has no backwash through the virtual bottom,
+    // so it answers whether a site is connected to the top row.
+    private final WeightedQuickUnion fullIds;
+    private final boolean[] fullRootConnectedToTop;
+    // [size] - number of clusters of open sites of that size, kept along with fullIds.
+    private final int[] clustersOfSize;
+    // Undo logs of opened sites and of roots that got connected to the top, null if not undoable.
+    private final IntStack openedLog;
+    private final IntStack connectedToTopLog;
+    private final Deque<Checkpoint> checkpoints;
     private int openSitesCnt = 0;
+    private int clustersCnt = 0;
+    private int largestClusterSize = 0;
 
 
     // creates n-by-n grid, with all sites initially blocked
     public Percolation(int n) {
-        if (n < 1) {
-            throw new IllegalArgumentException("n must be > 0");
-        }
-        this.n = n;
-        this.ids = new int[n * n + 2];
-        this.rootToTreeSize = new int[this.ids.length];
-        this.ids[0] = 0;
-        this.ids[this.ids.length - 1] = this.ids.length - 1;
-        this.rootToTreeSize[0] = 1;
-        this.rootToTreeSize[this.rootToTreeSize.length - 1] = 1;
-        for (int i = 1; i < this.ids.length - 1; i++) {
-            this.ids[i] = BLOCKED_VALUE;
-            this.rootToTreeSize[i] = 1;
+        this(squareLattice(n), true);
+    }
+
+    /**
+     * Creates a system of an arbitrary lattice, with all sites initially blocked.
+     * (row, col) methods are available for 2D grid lattices only, otherwise use site methods.
+     *
+     * @param lattice Lattice of sites.
+     */
+    public Percolation(Lattice lattice) {
+        this(lattice, true);
+    }
+
+    /**
+     * Creates a system of an arbitrary lattice, with all sites initially blocked.
+     *
+     * @param lattice        Lattice of sites.
+     * @param trackFullSites Whether to keep the union find needed by isFull.
+     *                       Threshold trials need percolates only and skip it.
+     */
+    Percolation(Lattice lattice, boolean trackFullSites) {
+        this(lattice, trackFullSites, false);
+    }
+
+    /**
+     * Creates a system of an arbitrary lattice, with all sites initially blocked.
+     *
+     * @param lattice        Lattice of sites.
+     * @param trackFullSites Whether to keep the union find needed by isFull.
+     * @param undoable       Whether to support checkpoint and rollback.
+     */
+    Percolation(Lattice lattice, boolean trackFullSites, boolean undoable) {
+        if (lattice == null) {
+            throw new IllegalArgumentException("lattice can not be null");
         }
+        this.lattice = lattice;
+        boolean isGrid2D = lattice instanceof GridLattice && ((GridLattice) lattice).depth() == 1;
+        this.rows = isGrid2D ? ((GridLattice) lattice).height() : 0;
+        this.cols = isGrid2D ? ((GridLattice) lattice).width() : 0;
+        this.neighbors = new int[lattice.maxNeighbors()];
+        this.openSites = new boolean[lattice.size() + 2];
+        this.ids = new WeightedQuickUnion(this.openSites.length, undoable);
+        this.fullIds = trackFullSites ? new WeightedQuickUnion(lattice.size(), undoable) : null;
+        this.fullRootConnectedToTop = trackFullSites ? new boolean[lattice.size()] : null;
+        this.clustersOfSize = trackFullSites ? new int[lattice.size() + 1] : null;
+        this.openedLog = undoable ? new IntStack() : null;
+        this.connectedToTopLog = undoable ? new IntStack() : null;
+        this.checkpoints = undoable ? new ArrayDeque<>() : null;
+        this.openVirtualSites();
+    }
+
+    /**
+     * Creates n-by-n grid, with all sites initially blocked, that can roll back opened sites.
+     * Its union find does not compress paths, so finds take O(log n) instead of almost O(1).
+     *
+     * @param n Grid size.
+     * @return Percolation that supports checkpoint and rollback.
+     */
+    public static Percolation undoable(int n) {
+        return new Percolation(squareLattice(n), true, true);
+    }
+
+    /**
+     * Creates a system of an arbitrary lattice, with all sites initially blocked, that can roll back opened sites.
+     *
+     * @param lattice Lattice of sites.
+     * @return Percolation that supports checkpoint and rollback.
+     */
+    public static Percolation undoable(Lattice lattice) {
+        return new Percolation(lattice, true, true);
     }
 
     // opens the site (row, col) if it is not open already
     public void open(int row, int col) {
-        if (this.isOpen(row, col)) {
+        this.openIdx(this.rowColToIdx(row, col));
+    }
+
+    /**
+     * Opens a site of the lattice if it is not open already.
+     *
+     * @param site Site in [0, lattice.size()).
+     */
+    public void openSite(int site) {
+        this.openIdx(this.siteToIdx(site));
+    }
+
+    /**
+     * Opens a site by its index, without validating it.
+     *
+     * @param i Index of a site, that is lattice site + 1.
+     */
+    void openIdx(int i) {
+        if (this.openSites[i]) {
             return;
         }
 
-        int i = this.rowColToIdx(row, col);
-        if (!this.isOpenIdx(i)) {
-            this.ids[i] = i;
+        this.openSites[i] = true;
+        if (this.openedLog != null) {
+            this.openedLog.push(i);
+        }
+        if (this.fullIds != null) {
+            this.addCluster(1);
+        }
+        int site = i - 1;
+        int neighborsCount = this.lattice.neighbors(site, this.neighbors);
+        for (int k = 0; k < neighborsCount; k++) {
+            this.unionIfOpen(i, this.neighbors[k] + 1);
+        }
+        if (this.lattice.isTop(site)) {
+            this.unionWithVirtualTop(i);
+        }
+        if (this.lattice.isBottom(site)) {
+            this.unionWithVirtualBottom(i);
         }
-
-        this.unionLeft(row, col, i);
-        this.unionRight(row, col, i);
-        this.unionTop(row, col, i);
-        this.unionBottom(row, col, i);
 
         openSitesCnt++;
     }
 
+    /**
+     * Blocks all sites again, reusing the arrays.
+     */
+    void reset() {
+        Arrays.fill(this.openSites, false);
+        this.ids.reset();
+        if (this.fullIds != null) {
+            this.fullIds.reset();
+            Arrays.fill(this.fullRootConnectedToTop, false);
+            Arrays.fill(this.clustersOfSize, 0);
+        }
+        if (this.openedLog != null) {
+            this.openedLog.clear();
+            this.connectedToTopLog.clear();
+            this.checkpoints.clear();
+        }
+        this.openSitesCnt = 0;
+        this.clustersCnt = 0;
+        this.largestClusterSize = 0;
+        this.openVirtualSites();
+    }
+
+    /**
+     * Remembers the current state, so that sites opened after it can be closed by rollback().
+     * Checkpoints nest, rollback() returns to the latest one.
+     */
+    public void checkpoint() {
+        this.validateUndoable();
+        this.checkpoints.push(new Checkpoint(
+                this.openedLog.size(),
+                this.ids.unions(),
+                this.fullIds != null ? this.fullIds.unions() : 0,
+                this.connectedToTopLog.size(),
+                this.openSitesCnt,
+                this.clustersCnt,
+                this.largestClusterSize));
+    }
+
+    /**
+     * Closes all sites opened since the latest checkpoint and removes the checkpoint.
+     * Takes time proportional to the number of sites opened and unions made since the checkpoint.
+     */
+    public void rollback() {
+        this.validateUndoable();
+        if (this.checkpoints.isEmpty()) {
+            throw new IllegalStateException("There is no checkpoint to roll back to");
+        }
+
+        Checkpoint checkpoint = this.checkpoints.pop();
+        if (this.fullIds != null) {
+            while (this.fullIds.unions() > checkpoint.fullUnions) {
+                int child = this.fullIds.lastAttachedRoot();
+                int root = this.fullIds.parent(child);
+                this.fullIds.undoLastUnion();
+                int childSize = this.fullIds.size(child);
+                int rootSize = this.fullIds.size(root);
+                this.clustersOfSize[childSize + rootSize]--;
+                this.clustersOfSize[childSize]++;
+                this.clustersOfSize[rootSize]++;
+            }
+            while (this.connectedToTopLog.size() > checkpoint.connectedToTop) {
+                this.fullRootConnectedToTop[this.connectedToTopLog.pop()] = false;
+            }
+        }
+        this.ids.undo(checkpoint.unions);
+        // All unions are undone, so every site opened since the checkpoint is a single site cluster.
+        while (this.openedLog.size() > checkpoint.opened) {
+            this.openSites[this.openedLog.pop()] = false;
+            if (this.fullIds != null) {
+                this.clustersOfSize[1]--;
+            }
+        }
+
+        this.openSitesCnt = checkpoint.openSitesCnt;
+        this.clustersCnt = checkpoint.clustersCnt;
+        this.largestClusterSize = checkpoint.largestClusterSize;
+    }
+
     // is the site (row, col) open?
     public boolean isOpen(int row, int col) {
         int i = this.rowColToIdx(row, col);
@@ -56,22 +237,44 @@ public class Percolation {
     public boolean isFull(int row, int col) {
         // Is open and connected to the top row
         int i = this.rowColToIdx(row, col);
-        if (!this.isOpenIdx(i)) {
-            return false;
-        }
+        return this.isFullIdx(i);
+    }
 
-        int rooti = this.root(i);
-        for (int topCol = 1; topCol <= this.n ; topCol++) {
-            int topColI = this.rowColToIdx(1, topCol);
-            if (!this.isOpenIdx(topColI)) {
-                continue;
-            }
-            if (this.root(topColI) == rooti) {
-                return true;
+    /**
+     * Whether a site of the lattice is open.
+     *
+     * @param site Site in [0, lattice.size()).
+     * @return True if open.
+     */
+    public boolean isOpenSite(int site) {
+        return this.isOpenIdx(this.siteToIdx(site));
+    }
+
+    /**
+     * Whether a site of the lattice is open and connected to the top.
+     *
+     * @param site Site in [0, lattice.size()).
+     * @return True if full.
+     */
+    public boolean isFullSite(int site) {
+        return this.isFullIdx(this.siteToIdx(site));
+    }
+
+    /**
+     * Exports all full sites at once.
+     *
+     * @return Bitmap of full sites indexed by lattice site, site (row, col) of n-by-n grid is at bit (row - 1) * n + (col - 1).
+     */
+    public BitSet fullSites() {
+        int size = this.lattice.size();
+        BitSet fullSites = new BitSet(size);
+        for (int i = 1; i <= size; i++) {
+            if (this.isFullIdx(i)) {
+                fullSites.set(i - 1);
             }
         }
 
-        return false;
+        return fullSites;
     }
 
     // returns the number of open sites
@@ -81,118 +284,185 @@ public class Percolation {
 
     // does the system percolate?
     public boolean percolates() {
-        return this.root(0) == this.root(this.ids.length - 1);
+        return this.ids.root(0) == this.ids.root(this.openSites.length - 1);
     }
 
-    private int rowColToIdx(int row, int col) {
-        if (row < 1 || row > n) {
-            throw new IllegalArgumentException("row must ne between withing interval [1, n]");
-        }
-        if (col < 1 || col > n) {
-            throw new IllegalArgumentException("col must ne between withing interval [1, n]");
-        }
-        return col + this.n * (row - 1);
+    // returns the number of clusters of open sites
+    public int clusterCount() {
+        this.validateClustersTracked();
+        return this.clustersCnt;
     }
 
-    private void union(int i, int j) {
-        int rooti = this.root(i);
-        int rootj = this.root(j);
-        if (rooti == rootj) {
-            return;
-        }
+    // returns the number of sites in the largest cluster, 0 if no site is open
+    public int largestClusterSize() {
+        this.validateClustersTracked();
+        return this.largestClusterSize;
+    }
 
-        int sizei = this.size(rooti);
-        int sizej = this.size(rootj);
-        if (sizei > sizej) {
-            this.ids[rootj] = rooti;
-            this.rootToTreeSize[rooti] = sizei + sizej;
-            this.rootToTreeSize[rootj] = NOT_A_ROOT;
-        } else {
-            this.ids[rooti] = rootj;
-            this.rootToTreeSize[rootj] = sizei + sizej;
-            this.rootToTreeSize[rooti] = NOT_A_ROOT;
+    /**
+     * Number of clusters of a given size.
+     *
+     * @param size Cluster size in [1, lattice.size()].
+     * @return Number of clusters of open sites that have exactly that many sites.
+     */
+    public int clustersOfSize(int size) {
+        this.validateClustersTracked();
+        if (size < 1 || size >= this.clustersOfSize.length) {
+            throw new IllegalArgumentException("size must ne between withing interval [1, lattice.size()]");
         }
+        return this.clustersOfSize[size];
     }
 
-    private int size(int root) {
-        if (this.rootToTreeSize[root] != NOT_A_ROOT) {
-            return this.rootToTreeSize[root];
-        }
+    /**
+     * Exports cluster size distribution. It is kept up to date by every union, so export does not scan sites.
+     *
+     * @return Histogram h of length largestClusterSize() + 1, where h[size] is the number of clusters of that size.
+     */
+    public int[] clusterSizeHistogram() {
+        this.validateClustersTracked();
+        return Arrays.copyOf(this.clustersOfSize, this.largestClusterSize + 1);
+    }
 
-        throw new IllegalStateException(root + " is not a root index.");
+    private static Lattice squareLattice(int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be > 0");
+        }
+        return new SquareLattice(n);
     }
 
-    private int root(int i) {
-        if (i >= this.ids.length || i < 0) {
-            throw new IllegalArgumentException("i must ne between withing interval [1, this.ids.length]");
+    private int rowColToIdx(int row, int col) {
+        if (this.rows == 0) {
+            throw new UnsupportedOperationException("(row, col) is not supported by the lattice, use sites instead");
         }
+        if (row < 1 || row > this.rows) {
+            throw new IllegalArgumentException("row must ne between withing interval [1, n]");
+        }
+        if (col < 1 || col > this.cols) {
+            throw new IllegalArgumentException("col must ne between withing interval [1, n]");
+        }
+        return col + this.cols * (row - 1);
+    }
 
-        while (i != this.ids[i]) {
-            // flattens the tree
-            this.ids[i] = this.ids[this.ids[i]];
-            i = this.ids[i];
+    private int siteToIdx(int site) {
+        if (site < 0 || site >= this.lattice.size()) {
+            throw new IllegalArgumentException("site must ne between withing interval [0, lattice.size())");
         }
+        return site + 1;
+    }
 
-        return i;
+    private void openVirtualSites() {
+        this.openSites[0] = true;
+        this.openSites[this.openSites.length - 1] = true;
     }
 
-    private boolean isOpenIdx(int i) {
-        return this.ids[i] != BLOCKED_VALUE;
+    private void unionIfOpen(int i, int j) {
+        if (this.isOpenIdx(j)) {
+            this.union(i, j);
+        }
     }
 
-    private void unionLeft(int row, int col, int iToUnionWith) {
-        int leftCol = col - 1;
-        if (leftCol < 1) {
+    private void union(int i, int j) {
+        this.ids.union(i, j);
+        if (this.fullIds == null) {
             return;
         }
 
-        int leftIdx = this.rowColToIdx(row, leftCol);
-        if (!this.isOpenIdx(leftIdx)) {
+        // Sites in fullIds are shifted by one because there is no virtual top.
+        int rooti = this.fullIds.root(i - 1);
+        int rootj = this.fullIds.root(j - 1);
+        if (rooti == rootj) {
             return;
         }
 
-        this.union(iToUnionWith, leftIdx);
+        boolean connectedToTop = this.fullRootConnectedToTop[rooti] || this.fullRootConnectedToTop[rootj];
+        int sizei = this.fullIds.size(rooti);
+        int sizej = this.fullIds.size(rootj);
+        int root = this.fullIds.union(rooti, rootj);
+        if (connectedToTop) {
+            this.connectToTop(root);
+        }
+        this.removeCluster(sizei);
+        this.removeCluster(sizej);
+        this.addCluster(sizei + sizej);
     }
 
-    private void unionRight(int row, int col, int iToUnionWith) {
-        int rightCol = col + 1;
-        if (rightCol > this.n) {
+    private void connectToTop(int fullRoot) {
+        if (this.fullRootConnectedToTop[fullRoot]) {
             return;
         }
 
-        int rightIdx = this.rowColToIdx(row, rightCol);
-        if (!this.isOpenIdx(rightIdx)) {
-            return;
+        this.fullRootConnectedToTop[fullRoot] = true;
+        if (this.connectedToTopLog != null) {
+            this.connectedToTopLog.push(fullRoot);
         }
+    }
 
-        this.union(iToUnionWith, rightIdx);
+    private void addCluster(int size) {
+        this.clustersOfSize[size]++;
+        this.clustersCnt++;
+        this.largestClusterSize = Math.max(this.largestClusterSize, size);
     }
 
-    private void unionTop(int row, int col, int iToUnionWith) {
-        int topRow = row - 1;
-        if (topRow < 1) {
-            // union with virtual top
-            this.union(iToUnionWith, 0);
-            return;
+    private void removeCluster(int size) {
+        this.clustersOfSize[size]--;
+        this.clustersCnt--;
+    }
+
+    private void validateUndoable() {
+        if (this.checkpoints == null) {
+            throw new UnsupportedOperationException("Percolation is not undoable");
         }
+    }
 
-        int topIdx = this.rowColToIdx(topRow, col);
-        if (this.isOpenIdx(topIdx)) {
-            this.union(iToUnionWith, topIdx);
+    private void validateClustersTracked() {
+        if (this.fullIds == null) {
+            throw new UnsupportedOperationException("Clusters are not tracked");
         }
     }
 
-    private void unionBottom(int row, int col, int iToUnionWith) {
-        int bottomRow = row + 1;
-        if (bottomRow > this.n) {
-            // union with virtual bottom
-            this.union(iToUnionWith, this.ids.length - 1);
-            return;
+    private void unionWithVirtualTop(int i) {
+        this.ids.union(i, 0);
+        if (this.fullIds != null) {
+            this.connectToTop(this.fullIds.root(i - 1));
         }
+    }
+
+    private void unionWithVirtualBottom(int i) {
+        this.ids.union(i, this.openSites.length - 1);
+    }
+
+    private boolean isOpenIdx(int i) {
+        return this.openSites[i];
+    }
+
+    private boolean isFullIdx(int i) {
+        if (this.fullIds == null) {
+            throw new UnsupportedOperationException("Full sites are not tracked");
+        }
+        return this.isOpenIdx(i) && this.fullRootConnectedToTop[this.fullIds.root(i - 1)];
+    }
 
-        int bottomIdx = this.rowColToIdx(bottomRow, col);
-        if (this.isOpenIdx(bottomIdx)) {
-            this.union(iToUnionWith, bottomIdx);
+    /**
+     * Sizes of undo logs and counters at the moment of a checkpoint.
+     */
+    private static final class Checkpoint {
+        private final int opened;
+        private final int unions;
+        private final int fullUnions;
+        private final int connectedToTop;
+        private final int openSitesCnt;
+        private final int clustersCnt;
+        private final int largestClusterSize;
+
+        Checkpoint(int opened, int unions, int fullUnions, int connectedToTop,
+                   int openSitesCnt, int clustersCnt, int largestClusterSize) {
+            this.opened = opened;
+            this.unions = unions;
+            this.fullUnions = fullUnions;
+            this.connectedToTop = connectedToTop;
+            this.openSitesCnt = openSitesCnt;
+            this.clustersCnt = clustersCnt;
+            this.largestClusterSize = largestClusterSize;
         }
     }
 
@@ -0,0 +1,309 @@
+package com.pavelhudau.percolation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Percolation curve computed with Newman–Ziff algorithm.
+ * <p>
+ * Every trial opens all sites of an n-by-n grid in a random order, one by one, and after every opened site
+ * records whether the system percolates, the size of the largest cluster and the sum of squared cluster sizes.
+ * Thus a single pass over a random permutation gives values for every number of open sites,
+ * for the same union find work that a single threshold trial costs.
+ * <p>
+ * Results are accumulated in primitive arrays indexed by the number of open sites,
+ * sums are kept in integers so the curve for a given seed is exact and reproducible.
+ */
+public class PercolationCurve {
+    private static final byte TOUCHES_TOP = 1;
+    private static final byte TOUCHES_BOTTOM = 2;
+    private static final byte TOUCHES_TOP_AND_BOTTOM = TOUCHES_TOP | TOUCHES_BOTTOM;
+    // Binomial weights smaller than that do not change the convolution.
+    private static final double NEGLIGIBLE_WEIGHT = 1e-17;
+    private final int n;
+    private final int sites;
+    private final int trials;
+    // [k] - number of trials that percolate with k open sites.
+    private final int[] percolatingTrials;
+    // [k] - sum over trials of the largest cluster size with k open sites.
+    private final long[] largestClusterSizeSum;
+    // [k] - sum over trials of squared cluster sizes with k open sites.
+    private final long[] clusterSizeSquaresSum;
+
+    /**
+     * Runs Newman–Ziff trials on an n-by-n grid.
+     *
+     * @param n      Grid size.
+     * @param trials Number of trials.
+     * @param seed   Seed of the random streams, trial i is seeded from (seed, i) as in PercolationStats,
+     *               but shuffles sites its own way, so it does not open them in the same order.
+     */
+    public PercolationCurve(int n, int trials, long seed) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be > 0");
+        }
+
+        if (trials <= 0) {
+            throw new IllegalArgumentException("trials must be > 0");
+        }
+
+        this.n = n;
+        this.sites = n * n;
+        this.trials = trials;
+        this.percolatingTrials = new int[this.sites + 1];
+        this.largestClusterSizeSum = new long[this.sites + 1];
+        this.clusterSizeSquaresSum = new long[this.sites + 1];
+
+        // Scratch state is allocated once and reset in place by every trial.
+        int[] permutation = new int[this.sites];
+        PassScratch scratch = new PassScratch(this.sites);
+        TrialRandom random = new TrialRandom();
+        for (int trial = 0; trial < trials; trial++) {
+            random.startTrial(seed, trial);
+            this.shuffle(permutation, random);
+            scratch.reset();
+            this.runPass(permutation, scratch);
+        }
+    }
+
+    // number of sites in the grid
+    public int sites() {
+        return this.sites;
+    }
+
+    // number of trials
+    public int trials() {
+        return this.trials;
+    }
+
+    /**
+     * Probability that the system percolates with exactly the given number of open sites.
+     *
+     * @param openSites Number of open sites in [0, n * n].
+     * @return Fraction of trials that percolate.
+     */
+    public double percolationProbability(int openSites) {
+        this.validateOpenSites(openSites);
+        return (double) this.percolatingTrials[openSites] / this.trials;
+    }
+
+    /**
+     * Average size of the largest cluster with exactly the given number of open sites.
+     *
+     * @param openSites Number of open sites in [0, n * n].
+     * @return Largest cluster size averaged over trials.
+     */
+    public double largestClusterSize(int openSites) {
+        this.validateOpenSites(openSites);
+        return (double) this.largestClusterSizeSum[openSites] / this.trials;
+    }
+
+    /**
+     * Mean cluster size with exactly the given number of open sites,
+     * i.e. average size of the cluster that a randomly chosen open site belongs to.
+     *
+     * @param openSites Number of open sites in [0, n * n].
+     * @return Sum of squared cluster sizes divided by the number of open sites, averaged over trials.
+     */
+    public double meanClusterSize(int openSites) {
+        this.validateOpenSites(openSites);
+        if (openSites == 0) {
+            return 0;
+        }
+        return (double) this.clusterSizeSquaresSum[openSites] / ((double) this.trials * openSites);
+    }
+
+    /**
+     * Probability that the system percolates when every site is open with probability p.
+     * Computed as a convolution of the curve with binomial distribution of the number of open sites.
+     *
+     * @param p Site vacancy probability in [0, 1].
+     * @return Percolation probability.
+     */
+    public double percolationProbabilityAt(double p) {
+        return this.convolve(p, this::percolationProbability);
+    }
+
+    /**
+     * Largest cluster size when every site is open with probability p.
+     *
+     * @param p Site vacancy probability in [0, 1].
+     * @return Largest cluster size.
+     */
+    public double largestClusterSizeAt(double p) {
+        return this.convolve(p, this::largestClusterSize);
+    }
+
+    /**
+     * Mean cluster size when every site is open with probability p.
+     *
+     * @param p Site vacancy probability in [0, 1].
+     * @return Mean cluster size.
+     */
+    public double meanClusterSizeAt(double p) {
+        return this.convolve(p, this::meanClusterSize);
+    }
+
+    private void runPass(int[] permutation, PassScratch scratch) {
+        WeightedQuickUnion clusters = scratch.clusters;
+        boolean[] open = scratch.open;
+        byte[] rootToTouches = scratch.rootToTouches;
+        int[] neighbors = scratch.neighbors;
+        boolean percolates = false;
+        int largestClusterSize = 0;
+        long clusterSizeSquares = 0;
+
+        for (int k = 1; k <= this.sites; k++) {
+            int site = permutation[k - 1];
+            int row = site / this.n;
+            int col = site % this.n;
+            open[site] = true;
+            rootToTouches[site] = touches(row, this.n);
+            percolates = percolates || rootToTouches[site] == TOUCHES_TOP_AND_BOTTOM;
+            largestClusterSize = Math.max(largestClusterSize, 1);
+            clusterSizeSquares++;
+
+            neighbors[0] = col > 0 ? site - 1 : -1;
+            neighbors[1] = col < this.n - 1 ? site + 1 : -1;
+            neighbors[2] = row > 0 ? site - this.n : -1;
+            neighbors[3] = row < this.n - 1 ? site + this.n : -1;
+            for (int neighbor : neighbors) {
+                if (neighbor < 0 || !open[neighbor]) {
+                    continue;
+                }
+
+                int siteRoot = clusters.root(site);
+                int neighborRoot = clusters.root(neighbor);
+                if (siteRoot == neighborRoot) {
+                    continue;
+                }
+
+                long siteClusterSize = clusters.size(siteRoot);
+                long neighborClusterSize = clusters.size(neighborRoot);
+                byte touches = (byte) (rootToTouches[siteRoot] | rootToTouches[neighborRoot]);
+                int root = clusters.union(siteRoot, neighborRoot);
+                rootToTouches[root] = touches;
+                percolates = percolates || touches == TOUCHES_TOP_AND_BOTTOM;
+                largestClusterSize = Math.max(largestClusterSize, clusters.size(root));
+                // (a + b)^2 replaces a^2 + b^2
+                clusterSizeSquares += 2 * siteClusterSize * neighborClusterSize;
+            }
+
+            if (percolates) {
+                this.percolatingTrials[k]++;
+            }
+            this.largestClusterSizeSum[k] += largestClusterSize;
+            this.clusterSizeSquaresSum[k] += clusterSizeSquares;
+        }
+    }
+
+    /**
+     * Union find and site state of a single pass.
+     */
+    private static class PassScratch {
+        private final WeightedQuickUnion clusters;
+        private final boolean[] open;
+        private final byte[] rootToTouches;
+        private final int[] neighbors = new int[4];
+
+        PassScratch(int sites) {
+            this.clusters = new WeightedQuickUnion(sites);
+            this.open = new boolean[sites];
+            this.rootToTouches = new byte[sites];
+        }
+
+        void reset() {
+            this.clusters.reset();
+            Arrays.fill(this.open, false);
+            Arrays.fill(this.rootToTouches, (byte) 0);
+        }
+    }
+
+    private static byte touches(int row, int n) {
+        byte touches = 0;
+        if (row == 0) {
+            touches |= TOUCHES_TOP;
+        }
+        if (row == n - 1) {
+            touches |= TOUCHES_BOTTOM;
+        }
+        return touches;
+    }
+
+    private void shuffle(int[] permutation, TrialRandom random) {
+        for (int i = 0; i < permutation.length; i++) {
+            permutation[i] = i;
+        }
+        for (int i = permutation.length - 1; i > 0; i--) {
+            int randPosition = random.applyAsInt(i + 1);
+            int ith = permutation[i];
+            permutation[i] = permutation[randPosition];
+            permutation[randPosition] = ith;
+        }
+    }
+
+    private double convolve(double p, IntToDoubleFunction valueWithOpenSites) {
+        if (p < 0 || p > 1) {
+            throw new IllegalArgumentException("p must be between withing interval [0, 1]");
+        }
+        if (p == 0) {
+            return valueWithOpenSites.applyAsDouble(0);
+        }
+        if (p == 1) {
+            return valueWithOpenSites.applyAsDouble(this.sites);
+        }
+
+        // Walk away from the most likely number of open sites in both directions,
+        // binomial weights are computed relative to it, and normalized at the end.
+        int mode = (int) Math.min(this.sites, Math.floor((this.sites + 1) * p));
+        double odds = p / (1 - p);
+        double weightsSum = 1;
+        double valuesSum = valueWithOpenSites.applyAsDouble(mode);
+
+        double weight = 1;
+        for (int k = mode + 1; k <= this.sites && weight > NEGLIGIBLE_WEIGHT; k++) {
+            weight *= odds * (this.sites - k + 1) / k;
+            weightsSum += weight;
+            valuesSum += weight * valueWithOpenSites.applyAsDouble(k);
+        }
+
+        weight = 1;
+        for (int k = mode - 1; k >= 0 && weight > NEGLIGIBLE_WEIGHT; k--) {
+            weight *= (k + 1) / (odds * (this.sites - k));
+            weightsSum += weight;
+            valuesSum += weight * valueWithOpenSites.applyAsDouble(k);
+        }
+
+        return valuesSum / weightsSum;
+    }
+
+    private void validateOpenSites(int openSites) {
+        if (openSites < 0 || openSites > this.sites) {
+            throw new IllegalArgumentException("openSites must be between withing interval [0, n * n]");
+        }
+    }
+
+    // test client
+    // usage: PercolationCurve n trials seed
+    // prints CSV: open sites, percolation probability, largest cluster size, mean cluster size
+    public static void main(String[] args) throws IOException {
+        int n = Integer.parseInt(args[0]);
+        int trials = Integer.parseInt(args[1]);
+        long seed = Long.parseLong(args[2]);
+        PercolationCurve curve = new PercolationCurve(n, trials, seed);
+        // Rows are streamed, so a large grid does not keep the whole CSV in memory.
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        out.write("openSites,percolationProbability,largestClusterSize,meanClusterSize\n");
+        for (int k = 0; k <= curve.sites(); k++) {
+            out.write(k + "," + curve.percolationProbability(k)
+                    + "," + curve.largestClusterSize(k)
+                    + "," + curve.meanClusterSize(k) + "\n");
+        }
+        out.flush();
+    }
+}
@@ -1,62 +1,52 @@
 package com.pavelhudau.percolation;
 
-import edu.princeton.cs.algs4.StdRandom;
+import com.pavelhudau.random.RandomSource;
 import edu.princeton.cs.algs4.StdStats;
 
-public class PercolationStats {
-    private static class RowCol {
-        int row;
-        int col;
-
-        private RowCol(int row, int col) {
-            this.row = row;
-            this.col = col;
-        }
-    }
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
+public class PercolationStats {
     private static final double CONFIDENCE_95 = 1.96;
+    // A trial runs until a random threshold, so run times of equally sized tasks differ.
+    // Four tasks per worker even that out, while a 1024-trial batch still gives tasks of dozens of trials.
+    private static final int TASKS_PER_WORKER = 4;
+    // Seeded trials run in batches of that many trials, results of a batch are folded into running statistics.
+    private static final int BATCH_TRIALS = 1024;
+    // Confidence interval of fewer trials is too unreliable to stop on.
+    private static final int MIN_ADAPTIVE_TRIALS = 30;
+    private static final long CHECKPOINT_INTERVAL_MILLIS = 60_000;
     private final double percolationThresholdsMean;
     private final double percolationThresholdsStd;
     private final int trials;
 
     // perform independent trials on an n-by-n grid
     public PercolationStats(int n, int trials) {
-        if (n <= 0) {
-            throw new IllegalArgumentException("n must be > 0");
-        }
+        this(n, trials, RandomSource.stdRandom());
+    }
 
-        if (trials <= 0) {
-            throw new IllegalArgumentException("trials must be > 0");
+    /**
+     * Performs independent trials on an n-by-n grid sequentially, drawing random numbers from the given source.
+     *
+     * @param n      Grid size.
+     * @param trials Number of trials.
+     * @param random Source of random numbers, e.g. RandomSource.splittable(seed) for reproducible results.
+     */
+    public PercolationStats(int n, int trials, RandomSource random) {
+        validate(n, trials);
+        if (random == null) {
+            throw new IllegalArgumentException("random can not be null");
         }
 
         double[] percolationThresholds = new double[trials];
         this.trials = trials;
-        double totalNumberOfSlots = Math.pow(n, 2);
-        RowCol[] rowsCols = new RowCol[n * n];
-        for (int row = 1; row <= n; row++) {
-            for (int col = 1; col <= n; col++) {
-                rowsCols[(row - 1) * n + col - 1] = new RowCol(row, col);
-            }
-        }
-
+        PercolationTrial percolationTrial = new SitePercolationTrial(new SquareLattice(n));
         while (trials > 0) {
-            this.shuffleRowCols(rowsCols);
-            Percolation percolation = new Percolation(n);
-            boolean percolates = false;
-            for (RowCol rowCol : rowsCols) {
-                percolation.open(rowCol.row, rowCol.col);
-                percolates = percolation.percolates();
-                if (percolates) {
-                    break;
-                }
-            }
-
-            if (!percolates) {
-                throw new IllegalStateException("Exhausted all sites but still didn't achieve percolation. Must be an error in the algorithm.");
-            }
-
-            double percolationThreshold = percolation.numberOfOpenSites() / totalNumberOfSlots;
-            percolationThresholds[trials - 1] = percolationThreshold;
+            percolationThresholds[trials - 1] = percolationTrial.run(random::uniform);
             trials--;
         }
 
@@ -64,6 +54,228 @@ public class PercolationStats {
         this.percolationThresholdsStd = StdStats.stddev(percolationThresholds);
     }
 
+    /**
+     * Performs independent trials on an n-by-n grid in parallel on a Fork/Join pool.
+     * Every trial uses its own random stream derived from the seed,
+     * therefore results for a given seed are the same for any parallelism.
+     *
+     * @param n           Grid size.
+     * @param trials      Number of trials.
+     * @param seed        Seed of the random streams.
+     * @param parallelism Number of worker threads.
+     */
+    public PercolationStats(int n, int trials, long seed, int parallelism) {
+        this(siteTrials(squareLattice(n)), trials, seed, parallelism);
+    }
+
+    /**
+     * Performs independent trials on an arbitrary lattice in parallel on a Fork/Join pool.
+     * Threshold of a trial is the fraction of open lattice sites at the moment the system percolates.
+     *
+     * @param lattice     Lattice of sites.
+     * @param trials      Number of trials.
+     * @param seed        Seed of the random streams.
+     * @param parallelism Number of worker threads.
+     */
+    public PercolationStats(Lattice lattice, int trials, long seed, int parallelism) {
+        this(siteTrials(lattice), trials, seed, parallelism);
+    }
+
+    private PercolationStats(Supplier<PercolationTrial> trialFactory, int trials, long seed, int parallelism) {
+        this(runTrials(trialFactory, trials, 0, seed, parallelism));
+    }
+
+    private PercolationStats(RunningStats stats) {
+        this.trials = (int) stats.count();
+        this.percolationThresholdsMean = stats.mean();
+        this.percolationThresholdsStd = stats.stddev();
+    }
+
+    /**
+     * Performs independent trials on an n-by-n grid in parallel until 95% confidence interval
+     * gets narrower than the target width or until the trials budget is exhausted.
+     * Trials are folded into running statistics in trial order, thus it stops at the same trial for any parallelism.
+     *
+     * @param n           Grid size.
+     * @param targetWidth Target width of 95% confidence interval.
+     * @param maxTrials   Max number of trials.
+     * @param seed        Seed of the random streams.
+     * @param parallelism Number of worker threads.
+     * @return Statistics of trials run, see trials() for how many trials it took.
+     */
+    public static PercolationStats untilConfidenceWidth(int n, double targetWidth, int maxTrials, long seed, int parallelism) {
+        return untilConfidenceWidth(squareLattice(n), targetWidth, maxTrials, seed, parallelism);
+    }
+
+    /**
+     * Performs independent trials on an arbitrary lattice in parallel until 95% confidence interval
+     * gets narrower than the target width or until the trials budget is exhausted.
+     *
+     * @param lattice     Lattice of sites.
+     * @param targetWidth Target width of 95% confidence interval.
+     * @param maxTrials   Max number of trials.
+     * @param seed        Seed of the random streams.
+     * @param parallelism Number of worker threads.
+     * @return Statistics of trials run, see trials() for how many trials it took.
+     */
+    public static PercolationStats untilConfidenceWidth(Lattice lattice, double targetWidth, int maxTrials, long seed, int parallelism) {
+        return untilConfidenceWidth(siteTrials(lattice), targetWidth, maxTrials, seed, parallelism);
+    }
+
+    /**
+     * Performs independent bond percolation trials on an arbitrary lattice in parallel on a Fork/Join pool.
+     * Threshold of a trial is the fraction of open bonds at the moment the system percolates.
+     *
+     * @param lattice     Lattice of sites, bonds connect neighbor sites.
+     * @param trials      Number of trials.
+     * @param seed        Seed of the random streams.
+     * @param parallelism Number of worker threads.
+     * @return Statistics of bond percolation thresholds.
+     */
+    public static PercolationStats bonds(Lattice lattice, int trials, long seed, int parallelism) {
+        return new PercolationStats(bondTrials(lattice), trials, seed, parallelism);
+    }
+
+    /**
+     * Performs independent bond percolation trials on an arbitrary lattice in parallel
+     * until 95% confidence interval gets narrower than the target width or until the trials budget is exhausted.
+     *
+     * @param lattice     Lattice of sites, bonds connect neighbor sites.
+     * @param targetWidth Target width of 95% confidence interval.
+     * @param maxTrials   Max number of trials.
+     * @param seed        Seed of the random streams.
+     * @param parallelism Number of worker threads.
+     * @return Statistics of trials run, see trials() for how many trials it took.
+     */
+    public static PercolationStats bondsUntilConfidenceWidth(Lattice lattice, double targetWidth, int maxTrials, long seed, int parallelism) {
+        return untilConfidenceWidth(bondTrials(lattice), targetWidth, maxTrials, seed, parallelism);
+    }
+
+    private static PercolationStats untilConfidenceWidth(Supplier<PercolationTrial> trialFactory, double targetWidth, int maxTrials, long seed, int parallelism) {
+        validateTargetWidth(targetWidth);
+        return new PercolationStats(runTrials(trialFactory, maxTrials, targetWidth, seed, parallelism));
+    }
+
+    /**
+     * Performs independent trials on an n-by-n grid in parallel and periodically saves progress to a checkpoint file,
+     * so that the sweep can be continued with resume() after a restart.
+     * Checkpoints are written on a background thread and do not hold trials back.
+     *
+     * @param n              Grid size.
+     * @param trials         Number of trials.
+     * @param seed           Seed of the random streams.
+     * @param parallelism    Number of worker threads.
+     * @param checkpointFile File to save progress to, the final state is saved when the sweep completes.
+     * @return Statistics of all trials.
+     * @throws IOException if a checkpoint can not be written.
+     */
+    public static PercolationStats checkpointed(int n, int trials, long seed, int parallelism, Path checkpointFile) throws IOException {
+        return checkpointed(squareLattice(n), trials, seed, parallelism, checkpointFile);
+    }
+
+    /**
+     * Same as checkpointed(n, ...) for site percolation on a square, triangular, honeycomb or cubic lattice.
+     *
+     * @param lattice        Lattice of sites.
+     * @param trials         Number of trials.
+     * @param seed           Seed of the random streams.
+     * @param parallelism    Number of worker threads.
+     * @param checkpointFile File to save progress to, the final state is saved when the sweep completes.
+     * @return Statistics of all trials.
+     * @throws IOException if a checkpoint can not be written.
+     */
+    public static PercolationStats checkpointed(Lattice lattice, int trials, long seed, int parallelism, Path checkpointFile) throws IOException {
+        return checkpointed(lattice, false, trials, 0, seed, parallelism, checkpointFile);
+    }
+
+    /**
+     * Same as untilConfidenceWidth(lattice, ...) that periodically saves progress to a checkpoint file.
+     *
+     * @param lattice        Square, triangular, honeycomb or cubic lattice of sites.
+     * @param targetWidth    Target width of 95% confidence interval.
+     * @param maxTrials      Max number of trials.
+     * @param seed           Seed of the random streams.
+     * @param parallelism    Number of worker threads.
+     * @param checkpointFile File to save progress to, the final state is saved when the sweep completes.
+     * @return Statistics of trials run, see trials() for how many trials it took.
+     * @throws IOException if a checkpoint can not be written.
+     */
+    public static PercolationStats untilConfidenceWidthCheckpointed(Lattice lattice, double targetWidth, int maxTrials, long seed,
+                                                                    int parallelism, Path checkpointFile) throws IOException {
+        validateTargetWidth(targetWidth);
+        return checkpointed(lattice, false, maxTrials, targetWidth, seed, parallelism, checkpointFile);
+    }
+
+    /**
+     * Same as bonds(lattice, ...) that periodically saves progress to a checkpoint file.
+     *
+     * @param lattice        Square, triangular, honeycomb or cubic lattice, bonds connect neighbor sites.
+     * @param trials         Number of trials.
+     * @param seed           Seed of the random streams.
+     * @param parallelism    Number of worker threads.
+     * @param checkpointFile File to save progress to, the final state is saved when the sweep completes.
+     * @return Statistics of bond percolation thresholds.
+     * @throws IOException if a checkpoint can not be written.
+     */
+    public static PercolationStats bondsCheckpointed(Lattice lattice, int trials, long seed, int parallelism, Path checkpointFile) throws IOException {
+        return checkpointed(lattice, true, trials, 0, seed, parallelism, checkpointFile);
+    }
+
+    /**
+     * Same as bondsUntilConfidenceWidth(lattice, ...) that periodically saves progress to a checkpoint file.
+     *
+     * @param lattice        Square, triangular, honeycomb or cubic lattice, bonds connect neighbor sites.
+     * @param targetWidth    Target width of 95% confidence interval.
+     * @param maxTrials      Max number of trials.
+     * @param seed           Seed of the random streams.
+     * @param parallelism    Number of worker threads.
+     * @param checkpointFile File to save progress to, the final state is saved when the sweep completes.
+     * @return Statistics of trials run, see trials() for how many trials it took.
+     * @throws IOException if a checkpoint can not be written.
+     */
+    public static PercolationStats bondsUntilConfidenceWidthCheckpointed(Lattice lattice, double targetWidth, int maxTrials, long seed,
+                                                                         int parallelism, Path checkpointFile) throws IOException {
+        validateTargetWidth(targetWidth);
+        return checkpointed(lattice, true, maxTrials, targetWidth, seed, parallelism, checkpointFile);
+    }
+
+    private static PercolationStats checkpointed(Lattice lattice, boolean bonds, int maxTrials, double targetWidth, long seed,
+                                                 int parallelism, Path checkpointFile) throws IOException {
+        validate(lattice);
+        String latticeName = SweepCheckpoint.latticeName(lattice);
+        int n = ((GridLattice) lattice).width();
+        SweepCheckpoint sweep = new SweepCheckpoint(latticeName, n, bonds, maxTrials, targetWidth, seed, new RunningStats());
+        return runCheckpointed(sweep, parallelism, checkpointFile, CHECKPOINT_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Continues a sweep from its checkpoint file. The result is exactly the same as of a sweep that was never stopped.
+     *
+     * @param checkpointFile File that a sweep saved its progress to, it keeps being updated.
+     * @param parallelism    Number of worker threads.
+     * @return Statistics of all trials, including trials run before the checkpoint.
+     * @throws IOException if the checkpoint can not be read or written.
+     */
+    public static PercolationStats resume(Path checkpointFile, int parallelism) throws IOException {
+        return runCheckpointed(SweepCheckpoint.read(checkpointFile), parallelism, checkpointFile, CHECKPOINT_INTERVAL_MILLIS);
+    }
+
+    static PercolationStats runCheckpointed(SweepCheckpoint sweep, int parallelism, Path checkpointFile, long intervalMillis) throws IOException {
+        if (checkpointFile == null) {
+            throw new IllegalArgumentException("checkpointFile can not be null");
+        }
+        Lattice lattice = sweep.lattice();
+        Supplier<PercolationTrial> trialFactory = sweep.bonds ? bondTrials(lattice) : siteTrials(lattice);
+        RunningStats stats = sweep.stats();
+        try (CheckpointWriter writer = new CheckpointWriter(checkpointFile, intervalMillis)) {
+            runTrials(trialFactory, sweep.maxTrials, sweep.targetWidth, sweep.seed, parallelism,
+                    stats, batchStats -> writer.offer(sweep.withStats(batchStats)));
+            writer.finish(sweep.withStats(stats));
+        }
+
+        return new PercolationStats(stats);
+    }
+
     // sample mean of percolation threshold
     public double mean() {
         return this.percolationThresholdsMean;
@@ -84,20 +296,195 @@ public class PercolationStats {
         return this.percolationThresholdsMean + (CONFIDENCE_95 * this.percolationThresholdsStd / Math.sqrt(this.trials));
     }
 
-    private void shuffleRowCols(RowCol[] rowCols) {
-        for (int i = 0; i < rowCols.length; i++) {
-            int randPosition = i > 0 ? StdRandom.uniform(i) : 0;
-            RowCol ith = rowCols[i];
-            rowCols[i] = rowCols[randPosition];
-            rowCols[randPosition] = ith;
+    // number of trials run
+    public int trials() {
+        return this.trials;
+    }
+
+    static RunningStats runTrials(Supplier<PercolationTrial> trialFactory, int maxTrials, double targetWidth, long seed, int parallelism) {
+        RunningStats stats = new RunningStats();
+        runTrials(trialFactory, maxTrials, targetWidth, seed, parallelism, stats, batchStats -> {
+        });
+        return stats;
+    }
+
+    /**
+     * Runs trials that are not folded into the statistics yet, until the target is reached.
+     *
+     * @param stats   Statistics of trials done so far, trials continue from stats.count().
+     * @param onBatch Receives the statistics after every batch of trials.
+     */
+    private static void runTrials(Supplier<PercolationTrial> trialFactory, int maxTrials, double targetWidth, long seed, int parallelism,
+                                  RunningStats stats, Consumer<RunningStats> onBatch) {
+        if (maxTrials <= 0) {
+            throw new IllegalArgumentException("trials must be > 0");
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be > 0");
+        }
+
+        if (isConfident(stats, targetWidth)) {
+            return;
+        }
+
+        double[] batch = new double[Math.min(BATCH_TRIALS, maxTrials)];
+        // A single worker runs a whole batch as one task on the calling thread, without a pool of its own,
+        // so callers that already run on a worker thread, e.g. jobs of Main, do not add a thread.
+        int leafSize = parallelism == 1
+                ? batch.length
+                : Math.max(1, batch.length / (parallelism * TASKS_PER_WORKER));
+        ForkJoinPool pool = parallelism == 1 ? null : new ForkJoinPool(parallelism);
+        // Each worker thread builds its trial once and reuses it for the whole sweep.
+        ThreadLocal<ParallelTrials.Worker> workers = ThreadLocal.withInitial(() -> new ParallelTrials.Worker(trialFactory.get()));
+        try {
+            while (stats.count() < maxTrials) {
+                int batchSize = (int) Math.min(batch.length, maxTrials - stats.count());
+                ParallelTrials trials = new ParallelTrials(workers, seed, stats.count(), batch, batchSize, leafSize);
+                if (pool == null) {
+                    trials.invoke();
+                } else {
+                    pool.invoke(trials);
+                }
+                for (int i = 0; i < batchSize; i++) {
+                    stats.add(batch[i]);
+                    if (isConfident(stats, targetWidth)) {
+                        return;
+                    }
+                }
+                onBatch.accept(stats);
+            }
+        } finally {
+            // Pool threads die with the pool, the calling thread runs trials when there is no pool.
+            workers.remove();
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private static boolean isConfident(RunningStats stats, double targetWidth) {
+        return stats.count() >= MIN_ADAPTIVE_TRIALS && confidenceWidth(stats) < targetWidth;
+    }
+
+    private static Supplier<PercolationTrial> siteTrials(Lattice lattice) {
+        validate(lattice);
+        return () -> new SitePercolationTrial(lattice);
+    }
+
+    private static Supplier<PercolationTrial> bondTrials(Lattice lattice) {
+        validate(lattice);
+        return () -> new BondPercolationTrial(lattice);
+    }
+
+    private static double confidenceWidth(RunningStats stats) {
+        return 2 * CONFIDENCE_95 * stats.stddev() / Math.sqrt(stats.count());
+    }
+
+    private static Lattice squareLattice(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be > 0");
+        }
+        return new SquareLattice(n);
+    }
+
+    private static void validateTargetWidth(double targetWidth) {
+        if (!(targetWidth > 0)) {
+            throw new IllegalArgumentException("targetWidth must be > 0");
+        }
+    }
+
+    private static void validate(Lattice lattice) {
+        if (lattice == null) {
+            throw new IllegalArgumentException("lattice can not be null");
+        }
+        if (lattice.size() <= 0) {
+            throw new IllegalArgumentException("n must be > 0");
+        }
+    }
+
+    private static void validate(int n, int trials) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be > 0");
+        }
+
+        if (trials <= 0) {
+            throw new IllegalArgumentException("trials must be > 0");
         }
     }
 
     // test client (see below)
-    public static void main(String[] args) {
+    // usage: PercolationStats n trials [seed [parallelism]]
+    //        PercolationStats n -width targetWidth maxTrials seed [parallelism]
+    //        PercolationStats n -bonds trials seed [parallelism]
+    //        PercolationStats n -bonds -width targetWidth maxTrials seed [parallelism]
+    //        any of the seeded forms above followed by -checkpoint file
+    //        PercolationStats -resume file [parallelism]
+    public static void main(String[] args) throws IOException {
+        if ("-resume".equals(args[0])) {
+            int parallelism = args.length > 2
+                    ? Integer.parseInt(args[2])
+                    : Runtime.getRuntime().availableProcessors();
+            print(resume(Paths.get(args[1]), parallelism));
+            return;
+        }
+
+        int argc = args.length;
+        Path checkpointFile = null;
+        if (argc > 2 && "-checkpoint".equals(args[argc - 2])) {
+            checkpointFile = Paths.get(args[argc - 1]);
+            argc -= 2;
+        }
+
         int n = Integer.parseInt(args[0]);
-        int trials = Integer.parseInt(args[1]);
-        PercolationStats percolationStats = new PercolationStats(n, trials);
+        int next = 1;
+        boolean bonds = "-bonds".equals(args[next]);
+        if (bonds) {
+            next++;
+        }
+        boolean adaptive = "-width".equals(args[next]);
+        if (adaptive) {
+            next++;
+        }
+        double targetWidth = adaptive ? Double.parseDouble(args[next++]) : 0;
+        int trials = Integer.parseInt(args[next++]);
+        if (next >= argc) {
+            if (bonds || adaptive || checkpointFile != null) {
+                throw new IllegalArgumentException("seed is required with -bonds, -width and -checkpoint");
+            }
+            print(new PercolationStats(n, trials));
+            return;
+        }
+        long seed = Long.parseLong(args[next++]);
+        int parallelism = next < argc
+                ? Integer.parseInt(args[next])
+                : Runtime.getRuntime().availableProcessors();
+
+        Lattice lattice = squareLattice(n);
+        PercolationStats percolationStats;
+        if (checkpointFile == null) {
+            if (bonds && adaptive) {
+                percolationStats = bondsUntilConfidenceWidth(lattice, targetWidth, trials, seed, parallelism);
+            } else if (bonds) {
+                percolationStats = bonds(lattice, trials, seed, parallelism);
+            } else if (adaptive) {
+                percolationStats = untilConfidenceWidth(lattice, targetWidth, trials, seed, parallelism);
+            } else {
+                percolationStats = new PercolationStats(lattice, trials, seed, parallelism);
+            }
+        } else if (bonds && adaptive) {
+            percolationStats = bondsUntilConfidenceWidthCheckpointed(lattice, targetWidth, trials, seed, parallelism, checkpointFile);
+        } else if (bonds) {
+            percolationStats = bondsCheckpointed(lattice, trials, seed, parallelism, checkpointFile);
+        } else if (adaptive) {
+            percolationStats = untilConfidenceWidthCheckpointed(lattice, targetWidth, trials, seed, parallelism, checkpointFile);
+        } else {
+            percolationStats = checkpointed(lattice, trials, seed, parallelism, checkpointFile);
+        }
+        print(percolationStats);
+    }
+
+    private static void print(PercolationStats percolationStats) {
+        System.out.println("trials =                  " + percolationStats.trials());
         System.out.println("mean =                    " + percolationStats.mean());
         System.out.println("stddev =                  " + percolationStats.stddev());
         System.out.println("95% confidence interval = [" +
@@ -0,0 +1,16 @@
+package com.pavelhudau.percolation;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A percolation experiment that can be run many times, e.g. by a worker of ParallelTrials.
+ */
+interface PercolationTrial {
+    /**
+     * Runs one trial.
+     *
+     * @param uniform Source of random numbers, returns an integer in [0, bound) for a given bound.
+     * @return Percolation threshold observed in the trial.
+     */
+    double run(IntUnaryOperator uniform);
+}
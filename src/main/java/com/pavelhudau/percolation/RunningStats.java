@@ -0,0 +1,55 @@
+package com.pavelhudau.percolation;
+
+/**
+ * Streaming mean and sample standard deviation, computed with Welford's algorithm.
+ * Values are not kept, so memory does not depend on the number of values.
+ */
+class RunningStats {
+    private long count = 0;
+    private double mean = 0;
+    // Sum of squared differences from the current mean.
+    private double squaredDiffsSum = 0;
+
+    RunningStats() {
+    }
+
+    /**
+     * Restores statistics saved earlier, e.g. from a checkpoint.
+     *
+     * @param count           Number of values.
+     * @param mean            Mean of values.
+     * @param squaredDiffsSum Sum of squared differences from the mean.
+     */
+    RunningStats(long count, double mean, double squaredDiffsSum) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must be >= 0");
+        }
+        this.count = count;
+        this.mean = mean;
+        this.squaredDiffsSum = squaredDiffsSum;
+    }
+
+    void add(double value) {
+        this.count++;
+        double diff = value - this.mean;
+        this.mean += diff / this.count;
+        this.squaredDiffsSum += diff * (value - this.mean);
+    }
+
+    long count() {
+        return this.count;
+    }
+
+    double mean() {
+        return this.count > 0 ? this.mean : Double.NaN;
+    }
+
+    double squaredDiffsSum() {
+        return this.squaredDiffsSum;
+    }
+
+    // sample standard deviation, NaN when there are less than 2 values
+    double stddev() {
+        return this.count > 1 ? Math.sqrt(this.squaredDiffsSum / (this.count - 1)) : Double.NaN;
+    }
+}
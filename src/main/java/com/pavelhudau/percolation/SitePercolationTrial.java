@@ -0,0 +1,62 @@
+package com.pavelhudau.percolation;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A single site percolation experiment: opens sites of a lattice in random order
+ * until the system percolates. The sites permutation and the percolation are reset in place between runs,
+ * so one instance runs any number of trials without allocating.
+ */
+class SitePercolationTrial implements PercolationTrial {
+    private final double totalNumberOfSlots;
+    // Site indices as Percolation.openIdx expects them.
+    private final int[] sites;
+    private final Percolation percolation;
+
+    SitePercolationTrial(Lattice lattice) {
+        this.totalNumberOfSlots = lattice.size();
+        this.sites = new int[lattice.size()];
+        this.percolation = new Percolation(lattice, false);
+    }
+
+    /**
+     * Runs one trial.
+     *
+     * @param uniform Source of random numbers, returns an integer in [0, bound) for a given bound.
+     * @return Fraction of open sites at the moment the system percolates.
+     */
+    @Override
+    public double run(IntUnaryOperator uniform) {
+        this.shuffleSites(uniform);
+        this.percolation.reset();
+        boolean percolates = false;
+        for (int site : this.sites) {
+            this.percolation.openIdx(site);
+            percolates = this.percolation.percolates();
+            if (percolates) {
+                break;
+            }
+        }
+
+        if (!percolates) {
+            throw new IllegalStateException("Exhausted all sites but still didn't achieve percolation. Must be an error in the algorithm.");
+        }
+
+        return this.percolation.numberOfOpenSites() / this.totalNumberOfSlots;
+    }
+
+    private void shuffleSites(IntUnaryOperator uniform) {
+        // Always shuffle from the same order, so the result depends only on the random numbers
+        // and not on the trials run before.
+        for (int i = 0; i < this.sites.length; i++) {
+            this.sites[i] = i + 1;
+        }
+        // Fisher–Yates: position i swaps with a random position in [0, i], which may be i itself.
+        for (int i = 1; i < this.sites.length; i++) {
+            int randPosition = uniform.applyAsInt(i + 1);
+            int ith = this.sites[i];
+            this.sites[i] = this.sites[randPosition];
+            this.sites[randPosition] = ith;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.pavelhudau.percolation;
+
+/**
+ * n-by-n square lattice, every site is connected to 4 neighbors: left, right, top and bottom.
+ */
+public class SquareLattice extends GridLattice {
+    private static final int[][] OFFSETS = {{
+            -1, 0, 0,
+            1, 0, 0,
+            0, -1, 0,
+            0, 1, 0
+    }};
+
+    public SquareLattice(int n) {
+        super(n, n, 1, OFFSETS);
+    }
+}
@@ -0,0 +1,149 @@
+package com.pavelhudau.percolation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * State of a seeded PercolationStats sweep, enough to resume it after a restart.
+ * Sweeps of site or bond percolation on square, triangular, honeycomb and cubic lattices can be saved,
+ * with a fixed number of trials or until a target confidence width.
+ * <p>
+ * Trial i draws from the random stream of (seed, i) and results are folded in trial order,
+ * so the random state is the seed plus the number of trials done, and a resumed sweep
+ * gives exactly the same statistics as a sweep that was never interrupted.
+ * <p>
+ * Binary format, big endian: magic, version, lattice name (modified UTF-8), n, bonds, maxTrials, targetWidth, seed,
+ * trials done, mean and sum of squared differences from the mean.
+ */
+final class SweepCheckpoint {
+    private static final int MAGIC = 0x50435350;
+    private static final int VERSION = 2;
+    // Lattice kind as GridLattice.named() takes it.
+    final String lattice;
+    final int n;
+    final boolean bonds;
+    final int maxTrials;
+    // 0 for a sweep of exactly maxTrials trials.
+    final double targetWidth;
+    final long seed;
+    final long count;
+    final double mean;
+    final double squaredDiffsSum;
+
+    SweepCheckpoint(String lattice, int n, boolean bonds, int maxTrials, double targetWidth, long seed, RunningStats stats) {
+        this(lattice, n, bonds, maxTrials, targetWidth, seed,
+                stats.count(), stats.count() > 0 ? stats.mean() : 0, stats.squaredDiffsSum());
+    }
+
+    private SweepCheckpoint(String lattice, int n, boolean bonds, int maxTrials, double targetWidth, long seed,
+                            long count, double mean, double squaredDiffsSum) {
+        this.lattice = lattice;
+        this.n = n;
+        this.bonds = bonds;
+        this.maxTrials = maxTrials;
+        this.targetWidth = targetWidth;
+        this.seed = seed;
+        this.count = count;
+        this.mean = mean;
+        this.squaredDiffsSum = squaredDiffsSum;
+    }
+
+    /**
+     * Same sweep with different progress.
+     *
+     * @param stats Statistics of trials done.
+     * @return Checkpoint of the sweep, it copies stats.
+     */
+    SweepCheckpoint withStats(RunningStats stats) {
+        return new SweepCheckpoint(this.lattice, this.n, this.bonds, this.maxTrials, this.targetWidth, this.seed, stats);
+    }
+
+    /**
+     * Name of a lattice that can be saved in a checkpoint.
+     *
+     * @param lattice Square, triangular, honeycomb or cubic lattice.
+     * @return Name of the lattice kind, the size is GridLattice.width().
+     */
+    static String latticeName(Lattice lattice) {
+        String name = GridLattice.nameOf(lattice);
+        if (name == null) {
+            throw new IllegalArgumentException("Only square, triangular, honeycomb and cubic lattices can be checkpointed");
+        }
+        return name;
+    }
+
+    Lattice lattice() {
+        return GridLattice.named(this.lattice, this.n);
+    }
+
+    RunningStats stats() {
+        return new RunningStats(this.count, this.mean, this.squaredDiffsSum);
+    }
+
+    /**
+     * Writes checkpoint to a temporary file next to the target and then moves it over the target,
+     * so a crash in the middle of a write leaves the previous checkpoint intact.
+     *
+     * @param file Checkpoint file.
+     * @throws IOException if the file can not be written.
+     */
+    void write(Path file) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        Path tmp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(this.lattice);
+            out.writeInt(this.n);
+            out.writeBoolean(this.bonds);
+            out.writeInt(this.maxTrials);
+            out.writeDouble(this.targetWidth);
+            out.writeLong(this.seed);
+            out.writeLong(this.count);
+            out.writeDouble(this.mean);
+            out.writeDouble(this.squaredDiffsSum);
+        }
+        Files.move(tmp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads checkpoint written by write().
+     *
+     * @param file Checkpoint file.
+     * @return Checkpoint.
+     * @throws IOException if the file can not be read or is not a checkpoint.
+     */
+    static SweepCheckpoint read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a percolation sweep checkpoint");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported checkpoint version " + version);
+            }
+            String lattice = in.readUTF();
+            try {
+                GridLattice.named(lattice, 1);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(file + " has unsupported lattice " + lattice, e);
+            }
+            return new SweepCheckpoint(
+                    lattice,
+                    in.readInt(),
+                    in.readBoolean(),
+                    in.readInt(),
+                    in.readDouble(),
+                    in.readLong(),
+                    in.readLong(),
+                    in.readDouble(),
+                    in.readDouble());
+        }
+    }
+}
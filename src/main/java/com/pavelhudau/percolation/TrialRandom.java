@@ -0,0 +1,59 @@
+package com.pavelhudau.percolation;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * SplitMix64 random stream that can be re-seeded in place,
+ * so a worker runs any number of trials without allocating a new generator per trial.
+ */
+class TrialRandom implements IntUnaryOperator {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private long state;
+
+    /**
+     * Derives a seed of an independent random stream for a trial.
+     *
+     * @param seed  Sweep seed.
+     * @param trial Trial index.
+     * @return Seed of the trial random stream.
+     */
+    static long trialSeed(long seed, long trial) {
+        // SplitMix64 output for position (trial + 1) of the sequence started at seed.
+        return mix64(seed + (trial + 1) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Restarts the stream of a trial.
+     *
+     * @param seed  Sweep seed.
+     * @param trial Trial index.
+     */
+    void startTrial(long seed, long trial) {
+        this.state = trialSeed(seed, trial);
+    }
+
+    /**
+     * Returns uniformly distributed integer.
+     *
+     * @param bound Upper bound, must be positive.
+     * @return Integer in [0, bound).
+     */
+    @Override
+    public int applyAsInt(int bound) {
+        int bits;
+        int value;
+        do {
+            // Rejects the last incomplete range of 31 random bits, so that there is no modulo bias.
+            this.state += GOLDEN_GAMMA;
+            bits = (int) (mix64(this.state) >>> 33);
+            value = bits % bound;
+        } while (bits - value + (bound - 1) < 0);
+        return value;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
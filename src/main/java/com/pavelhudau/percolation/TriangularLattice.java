@@ -0,0 +1,20 @@
+package com.pavelhudau.percolation;
+
+/**
+ * n-by-n triangular lattice, every site is connected to 6 neighbors.
+ * It is a square lattice where every cell has one extra diagonal, from bottom-left to top-right.
+ */
+public class TriangularLattice extends GridLattice {
+    private static final int[][] OFFSETS = {{
+            -1, 0, 0,
+            1, 0, 0,
+            0, -1, 0,
+            0, 1, 0,
+            1, -1, 0,
+            -1, 1, 0
+    }};
+
+    public TriangularLattice(int n) {
+        super(n, n, 1, OFFSETS);
+    }
+}
@@ -0,0 +1,204 @@
+package com.pavelhudau.percolation;
+
+import java.util.Arrays;
+
+/**
+ * Weighted quick union with path halving.
+ * Smaller tree is always attached to the root of a bigger tree.
+ * <p>
+ * Undoable union find does not compress paths, so a union only changes the two roots it merges.
+ * It logs every union and can undo the latest unions one by one, undoing k unions is O(k).
+ * Union by size alone keeps trees O(log n) deep.
+ */
+class WeightedQuickUnion {
+    private static final int NOT_A_ROOT = 0;
+    private final int[] ids;
+    private final int[] rootToTreeSize;
+    // Pairs of (attached root, its tree size) of every union, null if not undoable.
+    private final IntStack unionsLog;
+
+    /**
+     * Creates union find where every element is a root of its own tree.
+     *
+     * @param count Number of elements.
+     */
+    WeightedQuickUnion(int count) {
+        this(count, false);
+    }
+
+    /**
+     * Creates union find where every element is a root of its own tree.
+     *
+     * @param count    Number of elements.
+     * @param undoable Whether to log unions and skip path compression, so that unions can be undone.
+     */
+    WeightedQuickUnion(int count, boolean undoable) {
+        this.ids = new int[count];
+        this.rootToTreeSize = new int[count];
+        this.unionsLog = undoable ? new IntStack() : null;
+        this.reset();
+    }
+
+    /**
+     * Makes every element a root of its own tree again, reusing the arrays.
+     */
+    void reset() {
+        for (int i = 0; i < this.ids.length; i++) {
+            this.ids[i] = i;
+        }
+        Arrays.fill(this.rootToTreeSize, 1);
+        if (this.unionsLog != null) {
+            this.unionsLog.clear();
+        }
+    }
+
+    /**
+     * Finds root of the tree that element belongs to.
+     *
+     * @param i Element.
+     * @return Root of the tree.
+     */
+    int root(int i) {
+        if (i >= this.ids.length || i < 0) {
+            throw new IllegalArgumentException("i must ne between withing interval [1, this.ids.length]");
+        }
+
+        if (this.unionsLog != null) {
+            // Paths are left as is, otherwise unions could not be undone.
+            while (i != this.ids[i]) {
+                i = this.ids[i];
+            }
+            return i;
+        }
+
+        while (i != this.ids[i]) {
+            // flattens the tree
+            this.ids[i] = this.ids[this.ids[i]];
+            i = this.ids[i];
+        }
+
+        return i;
+    }
+
+    /**
+     * Merges trees of two elements.
+     *
+     * @param i First element.
+     * @param j Second element.
+     * @return Root of the merged tree.
+     */
+    int union(int i, int j) {
+        int rooti = this.root(i);
+        int rootj = this.root(j);
+        if (rooti == rootj) {
+            return rooti;
+        }
+
+        int sizei = this.size(rooti);
+        int sizej = this.size(rootj);
+        if (sizei > sizej) {
+            this.attach(rootj, sizej, rooti, sizei);
+            return rooti;
+        } else {
+            this.attach(rooti, sizei, rootj, sizej);
+            return rootj;
+        }
+    }
+
+    /**
+     * Number of logged unions, undo(unions()) later returns union find to the current state.
+     *
+     * @return Number of unions since creation or reset.
+     */
+    int unions() {
+        this.validateUndoable();
+        return this.unionsLog.size() / 2;
+    }
+
+    /**
+     * Root that the latest union attached to another root.
+     *
+     * @return Attached root, its parent is the root of the merged tree.
+     */
+    int lastAttachedRoot() {
+        this.validateUndoable();
+        if (this.unionsLog.size() == 0) {
+            throw new IllegalStateException("There are no unions");
+        }
+        return this.unionsLog.get(this.unionsLog.size() - 2);
+    }
+
+    /**
+     * Undoes the latest unions.
+     *
+     * @param unions Number of unions to keep, as returned by unions() earlier.
+     */
+    void undo(int unions) {
+        this.validateUndoable();
+        if (unions < 0 || unions > this.unions()) {
+            throw new IllegalArgumentException("unions must ne between withing interval [0, unions()]");
+        }
+
+        while (this.unions() > unions) {
+            this.undoLastUnion();
+        }
+    }
+
+    /**
+     * Undoes the latest union.
+     *
+     * @return Root that the union attached, it is a root again.
+     */
+    int undoLastUnion() {
+        if (this.unions() == 0) {
+            throw new IllegalStateException("There are no unions");
+        }
+        int size = this.unionsLog.pop();
+        int child = this.unionsLog.pop();
+        int root = this.ids[child];
+        this.ids[child] = child;
+        this.rootToTreeSize[child] = size;
+        this.rootToTreeSize[root] -= size;
+        return child;
+    }
+
+    /**
+     * Size of a tree.
+     *
+     * @param root Root of the tree.
+     * @return Number of elements in the tree.
+     */
+    int size(int root) {
+        if (this.rootToTreeSize[root] != NOT_A_ROOT) {
+            return this.rootToTreeSize[root];
+        }
+
+        throw new IllegalStateException(root + " is not a root index.");
+    }
+
+    /**
+     * Parent of an element, the element itself for a root.
+     *
+     * @param i Element.
+     * @return Parent element.
+     */
+    int parent(int i) {
+        return this.ids[i];
+    }
+
+    private void attach(int child, int childSize, int root, int rootSize) {
+        this.ids[child] = root;
+        this.rootToTreeSize[root] = rootSize + childSize;
+        this.rootToTreeSize[child] = NOT_A_ROOT;
+        if (this.unionsLog != null) {
+            this.unionsLog.push(child);
+            this.unionsLog.push(childSize);
+        }
+    }
+
+    private void validateUndoable() {
+        if (this.unionsLog == null) {
+            throw new UnsupportedOperationException("Union find is not undoable");
+        }
+    }
+}
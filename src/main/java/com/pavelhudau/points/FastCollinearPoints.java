@@ -2,9 +2,14 @@ package com.pavelhudau.points;
 
 import java.util.Comparator;
 import java.util.LinkedList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 public class FastCollinearPoints {
-    private int numberOfSegments;
+    // Every basis point costs a sort of all points, so equal ranges take about equal time.
+    // Every range task allocates scratch arrays of all points, more ranges would cost more memory than they save in balance.
+    private static final int RANGES_PER_WORKER = 4;
+    private final int numberOfSegments;
     private final LinkedList<LineSegment> segments;
 
     /**
@@ -13,9 +18,39 @@ public class FastCollinearPoints {
      * @param points
      */
     public FastCollinearPoints(Point[] points) {
+        this(points, 1);
+    }
+
+    /**
+     * Finds all line segments containing 4 or more points, basis points are split into ranges between worker threads.
+     * Every range sorts its own copy of points, and segments of ranges are joined in the order of basis points,
+     * so segments are exactly the same and in the same order as with a single thread.
+     *
+     * @param points      Points.
+     * @param parallelism Number of worker threads, 1 runs on the calling thread and sorts points in place.
+     */
+    public FastCollinearPoints(Point[] points, int parallelism) {
+        this(points, parallelism, false);
+    }
+
+    /**
+     * Finds all line segments containing 4 or more points.
+     * With exact slopes every other point is grouped by its exact direction from a basis point (see Point.direction())
+     * in a hash map rather than sorted by a floating point slope, so it takes expected O(n) per basis point
+     * instead of O(n log n), and O(n^2) in total. Segments of a basis point are ordered by slope,
+     * so they come in the same order as without exact slopes.
+     *
+     * @param points      Points.
+     * @param parallelism Number of worker threads, 1 runs on the calling thread.
+     * @param exactSlopes Whether to group points by exact directions instead of sorting by slopes.
+     */
+    public FastCollinearPoints(Point[] points, int parallelism, boolean exactSlopes) {
         if (points == null) {
             throw new IllegalArgumentException("points can not be null");
         }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be > 0");
+        }
 
         Point[] pointsByPosition = new Point[points.length];
         for (int i = 0; i < points.length; i++) {
@@ -28,12 +63,38 @@ public class FastCollinearPoints {
         // Sort points by position
         sortPointsByPosition(pointsByPosition);
 
-        this.numberOfSegments = 0;
-        this.segments = new LinkedList<>();
-
+        if (parallelism == 1) {
+            this.segments = exactSlopes
+                    ? findSegmentsByDirection(pointsByPosition, 0, pointsByPosition.length)
+                    : findSegments(points, pointsByPosition, 0, pointsByPosition.length);
+        } else {
+            int ranges = parallelism * RANGES_PER_WORKER;
+            int rangeSize = Math.max(1, (pointsByPosition.length + ranges - 1) / ranges);
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                this.segments = pool.invoke(new BasisRange(
+                        pointsByPosition, 0, pointsByPosition.length, rangeSize, exactSlopes));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        this.numberOfSegments = this.segments.size();
+    }
 
-        for (Point basisPoint : pointsByPosition) {
-            this.sortWithComparator(points, basisPoint.slopeOrder());
+    /**
+     * Finds segments of basis points in [lo, hi).
+     *
+     * @param points           Scratch array of all points, sorted by slope to every basis point in turn.
+     * @param pointsByPosition All points sorted by position.
+     * @param lo               Index of the first basis point in pointsByPosition.
+     * @param hi               Index after the last basis point in pointsByPosition.
+     * @return Segments in the order of basis points.
+     */
+    private static LinkedList<LineSegment> findSegments(Point[] points, Point[] pointsByPosition, int lo, int hi) {
+        LinkedList<LineSegment> segments = new LinkedList<>();
+        for (int basisIdx = lo; basisIdx < hi; basisIdx++) {
+            Point basisPoint = pointsByPosition[basisIdx];
+            sortWithComparator(points, basisPoint.slopeOrder());
 
             // We skip first point because it is basisPoint itself.
             // basisPoint.slopeTo(basisPoint) will return Double.NEGATIVE_INFINITY
@@ -55,12 +116,95 @@ public class FastCollinearPoints {
                 }
 
                 if (!hasSeenSegment && frontRunnerIdx - backRunnerIdx >= 3) {
-                    addSegment(createSegment(points, basisPoint, backRunnerIdx, frontRunnerIdx));
+                    segments.add(createSegment(points, basisPoint, backRunnerIdx, frontRunnerIdx));
                 }
 
                 backRunnerIdx = frontRunnerIdx;
             }
         }
+        return segments;
+    }
+
+    /**
+     * Finds segments of basis points in [lo, hi) by grouping points with equal directions from a basis point.
+     *
+     * @param pointsByPosition All points sorted by position.
+     * @param lo               Index of the first basis point in pointsByPosition.
+     * @param hi               Index after the last basis point in pointsByPosition.
+     * @return Segments in the order of basis points.
+     */
+    private static LinkedList<LineSegment> findSegmentsByDirection(Point[] pointsByPosition, int lo, int hi) {
+        int n = pointsByPosition.length;
+        LinkedList<LineSegment> segments = new LinkedList<>();
+        LongIntHashMap groupOfDirection = new LongIntHashMap(n);
+        // Groups of the current basis point, i.e. lines through it.
+        long[] directions = new long[n];
+        int[] sizes = new int[n];
+        boolean[] seen = new boolean[n];
+        Point[] max = new Point[n];
+        int[] newSegments = new int[n];
+        for (int basisIdx = lo; basisIdx < hi; basisIdx++) {
+            Point basisPoint = pointsByPosition[basisIdx];
+            groupOfDirection.clear();
+            int groups = 0;
+            for (int i = 0; i < n; i++) {
+                if (i == basisIdx) {
+                    continue;
+                }
+
+                Point point = pointsByPosition[i];
+                long direction = basisPoint.direction(point);
+                if (direction == 0) {
+                    throw new IllegalArgumentException("Duplicate points " + basisPoint.toString());
+                }
+                int group = groupOfDirection.putIfAbsent(direction, groups);
+                if (group < 0) {
+                    group = groups++;
+                    directions[group] = direction;
+                    sizes[group] = 0;
+                    seen[group] = false;
+                    max[group] = basisPoint;
+                }
+                sizes[group]++;
+                // Points before the basis point are less than it.
+                seen[group] = seen[group] || i < basisIdx;
+                if (max[group].compareTo(point) < 0) {
+                    max[group] = point;
+                }
+            }
+
+            int found = 0;
+            for (int group = 0; group < groups; group++) {
+                if (!seen[group] && sizes[group] >= 3) {
+                    newSegments[found++] = group;
+                }
+            }
+            // Insertion sort by slope, a basis point is on a few segments at most.
+            for (int i = 1; i < found; i++) {
+                int group = newSegments[i];
+                int j = i;
+                for (; j > 0 && compareSlopes(directions[group], directions[newSegments[j - 1]]) < 0; j--) {
+                    newSegments[j] = newSegments[j - 1];
+                }
+                newSegments[j] = group;
+            }
+            for (int i = 0; i < found; i++) {
+                segments.add(new LineSegment(basisPoint, max[newSegments[i]]));
+            }
+        }
+        return segments;
+    }
+
+    private static int compareSlopes(long direction1, long direction2) {
+        long dx1 = direction1 >> 32;
+        long dy1 = (int) direction1;
+        long dx2 = direction2 >> 32;
+        long dy2 = (int) direction2;
+        // dx is never negative, dx = 0 is a vertical line, which has the largest slope.
+        if (dx1 == 0 || dx2 == 0) {
+            return Boolean.compare(dx1 == 0, dx2 == 0);
+        }
+        return Long.compare(dy1 * dx2, dy2 * dx1);
     }
 
     /**
@@ -114,23 +258,18 @@ public class FastCollinearPoints {
         return new LineSegment(basisPoint, max);
     }
 
-    private void addSegment(LineSegment segment) {
-        this.segments.add(segment);
-        this.numberOfSegments++;
+    private static void sortPointsByPosition(Point[] a) {
+        sortWithComparator(a, null);
     }
 
-    private void sortPointsByPosition(Point[] a) {
-        this.sortWithComparator(a, null);
-    }
-
-    private void sortWithComparator(Point[] a, Comparator<Point> comparator) {
+    private static void sortWithComparator(Point[] a, Comparator<Point> comparator) {
         Point[] aux = new Point[a.length];
         System.arraycopy(a, 0, aux, 0, a.length);
-        this.sort(a, aux, 0, a.length - 1, comparator);
+        sort(a, aux, 0, a.length - 1, comparator);
         assert isSorted(a, comparator);
     }
 
-    private void sort(Point[] a, Point[] aux, int lo, int hi, Comparator<Point> comparator) {
+    private static void sort(Point[] a, Point[] aux, int lo, int hi, Comparator<Point> comparator) {
         if (lo >= hi) {
             return;
         }
@@ -140,7 +279,7 @@ public class FastCollinearPoints {
         merge(a, aux, lo, mid, hi, comparator);
     }
 
-    private void merge(Point[] a, Point[] aux, int lo, int mid, int hi, Comparator<Point> comparator) {
+    private static void merge(Point[] a, Point[] aux, int lo, int mid, int hi, Comparator<Point> comparator) {
         assert isSorted(a, lo, mid, comparator);
         assert isSorted(a, mid + 1, hi, comparator);
 
@@ -191,4 +330,46 @@ public class FastCollinearPoints {
 
         return true;
     }
-}
\ No newline at end of file
+
+    /**
+     * Finds segments of basis points in [lo, hi) split into ranges of rangeSize basis points.
+     */
+    private static class BasisRange extends RecursiveTask<LinkedList<LineSegment>> {
+        private static final long serialVersionUID = 1L;
+        private final Point[] pointsByPosition;
+        private final int lo;
+        private final int hi;
+        private final int rangeSize;
+        private final boolean exactSlopes;
+
+        BasisRange(Point[] pointsByPosition, int lo, int hi, int rangeSize, boolean exactSlopes) {
+            this.pointsByPosition = pointsByPosition;
+            this.lo = lo;
+            this.hi = hi;
+            this.rangeSize = rangeSize;
+            this.exactSlopes = exactSlopes;
+        }
+
+        @Override
+        protected LinkedList<LineSegment> compute() {
+            if (this.hi - this.lo <= this.rangeSize) {
+                if (this.exactSlopes) {
+                    return findSegmentsByDirection(this.pointsByPosition, this.lo, this.hi);
+                }
+                // A range sorts its own copy, pointsByPosition is shared and read only.
+                Point[] scratch = this.pointsByPosition.clone();
+                return findSegments(scratch, this.pointsByPosition, this.lo, this.hi);
+            }
+
+            int mid = this.lo + (this.hi - this.lo) / 2;
+            BasisRange left = new BasisRange(this.pointsByPosition, this.lo, mid, this.rangeSize, this.exactSlopes);
+            BasisRange right = new BasisRange(this.pointsByPosition, mid, this.hi, this.rangeSize, this.exactSlopes);
+            left.fork();
+            LinkedList<LineSegment> segments = right.compute();
+            // Left segments go first, which keeps the order of basis points.
+            LinkedList<LineSegment> leftSegments = left.join();
+            leftSegments.addAll(segments);
+            return leftSegments;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.pavelhudau.points;
+
+import java.util.Arrays;
+
+/**
+ * Map of non zero long keys to int values over primitive arrays, with open addressing and linear probing.
+ * Key 0 marks an empty slot. Does not box keys or allocate entries, and clear() reuses the arrays,
+ * so a single map can group points of every basis point.
+ */
+class LongIntHashMap {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private final long[] keys;
+    private final int[] values;
+    private final int shift;
+    private final int maxSize;
+    private int size = 0;
+
+    /**
+     * @param maxSize Max number of keys, the map does not resize.
+     */
+    LongIntHashMap(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize must be >= 0");
+        }
+
+        // At most half full, so that probes stay short.
+        int capacity = Integer.highestOneBit(Math.max(2, maxSize) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        this.maxSize = maxSize;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Maps the key to the value, unless the key is already mapped.
+     *
+     * @param key   Non zero key.
+     * @param value Value of the key.
+     * @return The value the key is already mapped to, or -1 if the key was added.
+     */
+    int putIfAbsent(long key, int value) {
+        if (key == 0) {
+            throw new IllegalArgumentException("key must be != 0");
+        }
+
+        int mask = this.keys.length - 1;
+        int slot = (int) ((key * GOLDEN_GAMMA) >>> this.shift);
+        while (this.keys[slot] != 0) {
+            if (this.keys[slot] == key) {
+                return this.values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (this.size == this.maxSize) {
+            throw new IllegalStateException("Map is full");
+        }
+        this.keys[slot] = key;
+        this.values[slot] = value;
+        this.size++;
+        return -1;
+    }
+
+    void clear() {
+        Arrays.fill(this.keys, 0);
+        this.size = 0;
+    }
+}
@@ -103,6 +103,41 @@ public class Point implements Comparable<Point> {
         }
     }
 
+    /**
+     * Returns the direction of the line through this point and the specified point as an exact reduced fraction.
+     * Direction (dx, dy) is divided by gcd(|dx|, |dy|) and its sign is chosen so that dx > 0,
+     * or dx = 0 and dy = 1 for a vertical line. Thus points on the same line through this point,
+     * on either side of it, get the same direction, like they get the same slopeTo().
+     *
+     * @param  that the other point
+     * @return dx in the high 32 bits and dy in the low 32 bits, or 0 if the points are equal
+     */
+    long direction(Point that) {
+        int dx = that.x - this.x;
+        int dy = that.y - this.y;
+        if (dx == 0 && dy == 0) {
+            return 0;
+        }
+
+        int gcd = gcd(Math.abs(dx), Math.abs(dy));
+        dx /= gcd;
+        dy /= gcd;
+        if (dx < 0 || (dx == 0 && dy < 0)) {
+            dx = -dx;
+            dy = -dy;
+        }
+        return ((long) dx << 32) | (dy & 0xffffffffL);
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int remainder = a % b;
+            a = b;
+            b = remainder;
+        }
+        return a;
+    }
+
     /**
      * Compares two points by the slope they make with this point.
      * The slope is defined as in the slopeTo() method.
@@ -0,0 +1,249 @@
+package com.pavelhudau.queues;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Deque of a fixed capacity that can be shared by producer and consumer threads.
+ * <p>
+ * put methods wait while the deque is full, take methods wait while it is empty, so producers
+ * can not run ahead of consumers by more than capacity items. Timed offer and poll methods give up after a timeout.
+ * All operations hold a single lock. Producers wait on the notFull condition and consumers on notEmpty,
+ * so an add wakes up a consumer and a removal wakes up a producer, never a thread of the same kind.
+ * drainTo() takes many items under one lock acquisition.
+ */
+public class BoundedBlockingDeque<Item> {
+    private final int capacity;
+    private final Deque<Item> items = new Deque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = this.lock.newCondition();
+    private final Condition notFull = this.lock.newCondition();
+
+    /**
+     * Constructs an empty deque.
+     *
+     * @param capacity Max number of items on the deque.
+     */
+    public BoundedBlockingDeque(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        this.capacity = capacity;
+    }
+
+    // is the deque empty?
+    public boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    // return the number of items on the deque
+    public int size() {
+        this.lock.lock();
+        try {
+            return this.items.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    // return the number of items that can be added without waiting
+    public int remainingCapacity() {
+        this.lock.lock();
+        try {
+            return this.capacity - this.items.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    // add the item to the front, waiting for space if the deque is full
+    public void putFirst(Item item) throws InterruptedException {
+        validateItem(item);
+        this.lock.lockInterruptibly();
+        try {
+            while (this.items.size() == this.capacity) {
+                this.notFull.await();
+            }
+            this.items.addFirst(item);
+            this.notEmpty.signal();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    // add the item to the back, waiting for space if the deque is full
+    public void putLast(Item item) throws InterruptedException {
+        validateItem(item);
+        this.lock.lockInterruptibly();
+        try {
+            while (this.items.size() == this.capacity) {
+                this.notFull.await();
+            }
+            this.items.addLast(item);
+            this.notEmpty.signal();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Adds the item to the front, waiting up to the timeout for space if the deque is full.
+     *
+     * @param item    Item to add.
+     * @param timeout How long to wait.
+     * @param unit    Unit of the timeout.
+     * @return true if the item was added, false if the deque stayed full.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean offerFirst(Item item, long timeout, TimeUnit unit) throws InterruptedException {
+        return this.offer(item, timeout, unit, true);
+    }
+
+    /**
+     * Adds the item to the back, waiting up to the timeout for space if the deque is full.
+     *
+     * @param item    Item to add.
+     * @param timeout How long to wait.
+     * @param unit    Unit of the timeout.
+     * @return true if the item was added, false if the deque stayed full.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean offerLast(Item item, long timeout, TimeUnit unit) throws InterruptedException {
+        return this.offer(item, timeout, unit, false);
+    }
+
+    // remove and return the item from the front, waiting for an item if the deque is empty
+    public Item takeFirst() throws InterruptedException {
+        this.lock.lockInterruptibly();
+        try {
+            while (this.items.isEmpty()) {
+                this.notEmpty.await();
+            }
+            Item item = this.items.removeFirst();
+            this.notFull.signal();
+            return item;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    // remove and return the item from the back, waiting for an item if the deque is empty
+    public Item takeLast() throws InterruptedException {
+        this.lock.lockInterruptibly();
+        try {
+            while (this.items.isEmpty()) {
+                this.notEmpty.await();
+            }
+            Item item = this.items.removeLast();
+            this.notFull.signal();
+            return item;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the item from the front, waiting up to the timeout for an item if the deque is empty.
+     *
+     * @param timeout How long to wait.
+     * @param unit    Unit of the timeout.
+     * @return The front item or null if the deque stayed empty.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public Item pollFirst(long timeout, TimeUnit unit) throws InterruptedException {
+        return this.poll(timeout, unit, true);
+    }
+
+    /**
+     * Removes and returns the item from the back, waiting up to the timeout for an item if the deque is empty.
+     *
+     * @param timeout How long to wait.
+     * @param unit    Unit of the timeout.
+     * @return The back item or null if the deque stayed empty.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public Item pollLast(long timeout, TimeUnit unit) throws InterruptedException {
+        return this.poll(timeout, unit, false);
+    }
+
+    /**
+     * Removes up to max items from the front and adds them to the collection in order, without waiting.
+     *
+     * @param collection Collection to add items to.
+     * @param max        Max number of items to move.
+     * @return Number of items moved.
+     */
+    public int drainTo(Collection<? super Item> collection, int max) {
+        if (collection == null) {
+            throw new IllegalArgumentException("collection can not be null");
+        }
+        if (max < 0) {
+            throw new IllegalArgumentException("max must be >= 0");
+        }
+
+        this.lock.lock();
+        try {
+            int drained = 0;
+            while (drained < max && !this.items.isEmpty()) {
+                collection.add(this.items.removeFirst());
+                drained++;
+            }
+            if (drained > 0) {
+                // Several slots got free, so several producers may go on.
+                this.notFull.signalAll();
+            }
+            return drained;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private boolean offer(Item item, long timeout, TimeUnit unit, boolean first) throws InterruptedException {
+        validateItem(item);
+        long nanos = unit.toNanos(timeout);
+        this.lock.lockInterruptibly();
+        try {
+            while (this.items.size() == this.capacity) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = this.notFull.awaitNanos(nanos);
+            }
+            if (first) {
+                this.items.addFirst(item);
+            } else {
+                this.items.addLast(item);
+            }
+            this.notEmpty.signal();
+            return true;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private Item poll(long timeout, TimeUnit unit, boolean first) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        this.lock.lockInterruptibly();
+        try {
+            while (this.items.isEmpty()) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = this.notEmpty.awaitNanos(nanos);
+            }
+            Item item = first ? this.items.removeFirst() : this.items.removeLast();
+            this.notFull.signal();
+            return item;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private static void validateItem(Object item) {
+        if (item == null) {
+            throw new IllegalArgumentException("item can not be null");
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.pavelhudau.queues;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Deque of fixed size array chunks linked in a doubly linked list (unrolled linked list), with the same contract as Deque.
+ * <p>
+ * Front is at index head of the first chunk, back is just before index tail of the last chunk.
+ * When an end chunk gets full a new chunk is linked to it, so unlike ResizingArrayDeque growth never copies items
+ * and an add never takes more than a chunk allocation. Unlike Deque it takes about one reference per item,
+ * plus a chunk header and two links per chunkSize items, and iteration walks contiguous memory within a chunk.
+ * A chunk emptied by removal is unlinked, one of them is kept as a spare, so that adding and removing
+ * across a chunk boundary does not allocate over and over. Removed slots are set to null.
+ */
+public class ChunkedDeque<Item> implements Iterable<Item> {
+    private static final int DEFAULT_CHUNK_SIZE = 64;
+    private final int chunkSize;
+    private Chunk first;
+    private Chunk last;
+    private Chunk spare;
+    // Index of the front item in the first chunk.
+    private int head;
+    // Index after the back item in the last chunk.
+    private int tail;
+    private int length = 0;
+
+    // construct an empty deque
+    public ChunkedDeque() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs an empty deque.
+     *
+     * @param chunkSize Number of items in a chunk.
+     */
+    public ChunkedDeque(int chunkSize) {
+        if (chunkSize <= 1) {
+            throw new IllegalArgumentException("chunkSize must be > 1");
+        }
+
+        this.chunkSize = chunkSize;
+        this.first = new Chunk(chunkSize);
+        this.last = this.first;
+        this.head = chunkSize / 2;
+        this.tail = this.head;
+    }
+
+    // is the deque empty?
+    public boolean isEmpty() {
+        return this.length == 0;
+    }
+
+    // return the number of items on the deque
+    public int size() {
+        return this.length;
+    }
+
+    // add the item to the front
+    public void addFirst(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("item can not be null");
+        }
+
+        if (this.head == 0) {
+            Chunk chunk = this.newChunk();
+            chunk.next = this.first;
+            this.first.prev = chunk;
+            this.first = chunk;
+            this.head = this.chunkSize;
+        }
+        this.first.items[--this.head] = item;
+        this.length++;
+    }
+
+    // add the item to the back
+    public void addLast(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("item can not be null");
+        }
+
+        if (this.tail == this.chunkSize) {
+            Chunk chunk = this.newChunk();
+            chunk.prev = this.last;
+            this.last.next = chunk;
+            this.last = chunk;
+            this.tail = 0;
+        }
+        this.last.items[this.tail++] = item;
+        this.length++;
+    }
+
+    // remove and return the item from the front
+    @SuppressWarnings("unchecked")
+    public Item removeFirst() {
+        if (this.length == 0) {
+            throw new NoSuchElementException("Deque is empty");
+        }
+
+        Item item = (Item) this.first.items[this.head];
+        // Avoids loitering
+        this.first.items[this.head] = null;
+        this.head++;
+        this.length--;
+        if (this.length == 0) {
+            this.recenter();
+        } else if (this.head == this.chunkSize) {
+            // The front item is always in the first chunk, so an emptied chunk is dropped right away.
+            Chunk emptied = this.first;
+            this.first = emptied.next;
+            this.first.prev = null;
+            this.head = 0;
+            this.recycle(emptied);
+        }
+        return item;
+    }
+
+    // remove and return the item from the back
+    @SuppressWarnings("unchecked")
+    public Item removeLast() {
+        if (this.length == 0) {
+            throw new NoSuchElementException("Deque is empty");
+        }
+
+        this.tail--;
+        Item item = (Item) this.last.items[this.tail];
+        // Avoids loitering
+        this.last.items[this.tail] = null;
+        this.length--;
+        if (this.length == 0) {
+            this.recenter();
+        } else if (this.tail == 0) {
+            Chunk emptied = this.last;
+            this.last = emptied.prev;
+            this.last.next = null;
+            this.tail = this.chunkSize;
+            this.recycle(emptied);
+        }
+        return item;
+    }
+
+    // return an iterator over items in order from front to back
+    public Iterator<Item> iterator() {
+        return new ChunkedDequeIterator();
+    }
+
+    private void recenter() {
+        // Both ends are in the same chunk once the deque is empty, so it can grow either way again.
+        this.head = this.chunkSize / 2;
+        this.tail = this.head;
+    }
+
+    private Chunk newChunk() {
+        if (this.spare == null) {
+            return new Chunk(this.chunkSize);
+        }
+        Chunk chunk = this.spare;
+        this.spare = null;
+        return chunk;
+    }
+
+    private void recycle(Chunk chunk) {
+        chunk.prev = null;
+        chunk.next = null;
+        this.spare = chunk;
+    }
+
+    private static class Chunk {
+        private final Object[] items;
+        private Chunk prev;
+        private Chunk next;
+
+        Chunk(int size) {
+            this.items = new Object[size];
+        }
+    }
+
+    private class ChunkedDequeIterator implements Iterator<Item> {
+        private Chunk chunk = first;
+        private int index = head;
+        private int remaining = length;
+
+        @Override
+        public boolean hasNext() {
+            return this.remaining > 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Item next() {
+            if (this.remaining == 0) {
+                throw new NoSuchElementException("Deque is empty");
+            }
+
+            if (this.index == chunkSize) {
+                this.chunk = this.chunk.next;
+                this.index = 0;
+            }
+            this.remaining--;
+            return (Item) this.chunk.items[this.index++];
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove is not supported");
+        }
+    }
+}
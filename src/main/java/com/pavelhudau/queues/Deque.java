@@ -2,6 +2,11 @@ package com.pavelhudau.queues;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A double-ended queue or deque (pronounced “deck”) is a generalization of a stack and a queue
@@ -111,6 +116,22 @@ public class Deque<Item> implements Iterable<Item> {
         return new DequeIterator<>(this);
     }
 
+    // return a spliterator over items in order from front to back, it binds to items when created
+    @Override
+    public Spliterator<Item> spliterator() {
+        return new DequeSpliterator<>(this.front, this.length);
+    }
+
+    // return a sequential stream of items in order from front to back
+    public Stream<Item> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    // return a parallel stream of items
+    public Stream<Item> parallelStream() {
+        return StreamSupport.stream(this.spliterator(), true);
+    }
+
     // unit testing (required)
     public static void main(String[] args) {
         Deque<Integer> deque = new Deque<>();
@@ -168,4 +189,81 @@ public class Deque<Item> implements Iterable<Item> {
             throw new UnsupportedOperationException("remove is not supported");
         }
     }
+
+    /**
+     * Links can not be split in the middle without walking to it, so every split copies a batch of items
+     * from the front into an array, which in turn splits in O(1). Batches grow arithmetically,
+     * thus a parallel stream gets more and bigger chunks of work as it goes.
+     */
+    private static class DequeSpliterator<Item> implements Spliterator<Item> {
+        private static final int BATCH_UNIT = 1 << 10;
+        private static final int MAX_BATCH = 1 << 25;
+        private AnItem<Item> current;
+        private int remaining;
+        private int batch = 0;
+
+        private DequeSpliterator(AnItem<Item> front, int length) {
+            this.current = front;
+            this.remaining = length;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Item> action) {
+            if (action == null) {
+                throw new NullPointerException("action can not be null");
+            }
+            if (this.remaining == 0) {
+                return false;
+            }
+
+            Item item = this.current.item;
+            this.current = this.current.next;
+            this.remaining--;
+            action.accept(item);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Item> action) {
+            if (action == null) {
+                throw new NullPointerException("action can not be null");
+            }
+
+            AnItem<Item> node = this.current;
+            int count = this.remaining;
+            this.current = null;
+            this.remaining = 0;
+            for (; count > 0; count--) {
+                action.accept(node.item);
+                node = node.next;
+            }
+        }
+
+        @Override
+        public Spliterator<Item> trySplit() {
+            if (this.remaining <= 1) {
+                return null;
+            }
+
+            int size = Math.min(Math.min(this.batch + BATCH_UNIT, MAX_BATCH), this.remaining);
+            Object[] prefix = new Object[size];
+            for (int i = 0; i < size; i++) {
+                prefix[i] = this.current.item;
+                this.current = this.current.next;
+            }
+            this.batch = size;
+            this.remaining -= size;
+            return Spliterators.spliterator(prefix, 0, size, Spliterator.ORDERED | Spliterator.NONNULL);
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
 }
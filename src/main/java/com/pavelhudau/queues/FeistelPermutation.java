@@ -0,0 +1,72 @@
+package com.pavelhudau.queues;
+
+/**
+ * Keyed pseudo random permutation of [0, size) that takes O(1) memory.
+ * <p>
+ * A balanced Feistel network is a bijection on [0, 4^halfBits) for any round function,
+ * where 4^halfBits is the smallest such power that is not less than size. It is less than 4 * size,
+ * so cycle walking, i.e. applying the network again until the value falls into [0, size),
+ * takes less than 4 rounds on average and keeps the bijection.
+ */
+class FeistelPermutation {
+    private static final int ROUNDS = 4;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private final int size;
+    private final int halfBits;
+    private final long halfMask;
+    private final long[] roundKeys = new long[ROUNDS];
+
+    /**
+     * @param size Number of elements to permute.
+     * @param key  Key of the permutation, every key gives a different permutation.
+     */
+    FeistelPermutation(int size, long key) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must be >= 0");
+        }
+
+        this.size = size;
+        int bits = size <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(size - 1L);
+        this.halfBits = Math.max(1, (bits + 1) / 2);
+        this.halfMask = (1L << this.halfBits) - 1;
+        for (int round = 0; round < ROUNDS; round++) {
+            key += GOLDEN_GAMMA;
+            this.roundKeys[round] = mix64(key);
+        }
+    }
+
+    /**
+     * Position of an element in the permutation.
+     *
+     * @param i Element in [0, size).
+     * @return Permuted element in [0, size).
+     */
+    int apply(int i) {
+        if (i < 0 || i >= this.size) {
+            throw new IllegalArgumentException("i must ne between withing interval [0, size)");
+        }
+
+        long value = i;
+        do {
+            value = this.encrypt(value);
+        } while (value >= this.size);
+        return (int) value;
+    }
+
+    private long encrypt(long value) {
+        long left = value >>> this.halfBits;
+        long right = value & this.halfMask;
+        for (long roundKey : this.roundKeys) {
+            long newRight = left ^ (mix64(right ^ roundKey) & this.halfMask);
+            left = right;
+            right = newRight;
+        }
+        return (left << this.halfBits) | right;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
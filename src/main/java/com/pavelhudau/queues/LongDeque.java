@@ -0,0 +1,167 @@
+package com.pavelhudau.queues;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+
+/**
+ * Deque of primitive longs, with the same contract as Deque but without boxing.
+ * <p>
+ * Items are kept in a circular resizing long array, the same way as in ResizingArrayDeque.
+ * The iterator returns primitives through nextLong(), and forEach() walks the array directly without any allocation.
+ */
+public class LongDeque {
+    private static final int DEFAULT_CAPACITY = 8;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private final int minCapacity;
+    private long[] items;
+    private int head = 0;
+    private int length = 0;
+
+    // construct an empty deque
+    public LongDeque() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty deque that fits the given number of items without resizing.
+     *
+     * @param initialCapacity Number of items, rounded up to a power of two.
+     */
+    public LongDeque(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("initialCapacity must be > 0");
+        }
+        if (initialCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("initialCapacity must be <= " + MAX_CAPACITY);
+        }
+
+        this.minCapacity = Integer.highestOneBit(initialCapacity) == initialCapacity
+                ? initialCapacity
+                : Integer.highestOneBit(initialCapacity) << 1;
+        this.items = new long[this.minCapacity];
+    }
+
+    // is the deque empty?
+    public boolean isEmpty() {
+        return this.length == 0;
+    }
+
+    // return the number of items on the deque
+    public int size() {
+        return this.length;
+    }
+
+    // add the item to the front
+    public void addFirst(long item) {
+        this.growIfFull();
+        this.head = (this.head - 1) & (this.items.length - 1);
+        this.items[this.head] = item;
+        this.length++;
+    }
+
+    // add the item to the back
+    public void addLast(long item) {
+        this.growIfFull();
+        this.items[(this.head + this.length) & (this.items.length - 1)] = item;
+        this.length++;
+    }
+
+    // remove and return the item from the front
+    public long removeFirst() {
+        if (this.length == 0) {
+            throw new NoSuchElementException("Deque is empty");
+        }
+
+        long item = this.items[this.head];
+        this.head = (this.head + 1) & (this.items.length - 1);
+        this.length--;
+        this.shrinkIfSparse();
+        return item;
+    }
+
+    // remove and return the item from the back
+    public long removeLast() {
+        if (this.length == 0) {
+            throw new NoSuchElementException("Deque is empty");
+        }
+
+        long item = this.items[(this.head + this.length - 1) & (this.items.length - 1)];
+        this.length--;
+        this.shrinkIfSparse();
+        return item;
+    }
+
+    // return an iterator over items in order from front to back
+    public PrimitiveIterator.OfLong iterator() {
+        return new LongDequeIterator();
+    }
+
+    /**
+     * Performs the action for every item in order from front to back.
+     *
+     * @param action Action to perform.
+     */
+    public void forEach(LongConsumer action) {
+        if (action == null) {
+            throw new NullPointerException("action can not be null");
+        }
+
+        int firstPart = Math.min(this.length, this.items.length - this.head);
+        for (int i = this.head; i < this.head + firstPart; i++) {
+            action.accept(this.items[i]);
+        }
+        for (int i = 0; i < this.length - firstPart; i++) {
+            action.accept(this.items[i]);
+        }
+    }
+
+    private void growIfFull() {
+        if (this.length < this.items.length) {
+            return;
+        }
+        if (this.items.length == MAX_CAPACITY) {
+            throw new IllegalStateException("Deque is full");
+        }
+        this.resize(this.items.length * 2);
+    }
+
+    private void shrinkIfSparse() {
+        if (this.items.length > this.minCapacity && this.length <= this.items.length / 4) {
+            this.resize(this.items.length / 2);
+        }
+    }
+
+    private void resize(int capacity) {
+        long[] resized = new long[capacity];
+        // Unwraps items, so that front is at index 0.
+        int firstPart = Math.min(this.length, this.items.length - this.head);
+        System.arraycopy(this.items, this.head, resized, 0, firstPart);
+        System.arraycopy(this.items, 0, resized, firstPart, this.length - firstPart);
+        this.items = resized;
+        this.head = 0;
+    }
+
+    private class LongDequeIterator implements PrimitiveIterator.OfLong {
+        private int position = 0;
+
+        @Override
+        public boolean hasNext() {
+            return this.position < length;
+        }
+
+        @Override
+        public long nextLong() {
+            if (this.position >= length) {
+                throw new NoSuchElementException("Deque is empty");
+            }
+
+            return items[(head + this.position++) & (items.length - 1)];
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove is not supported");
+        }
+    }
+}
@@ -1,15 +1,25 @@
 package com.pavelhudau.queues;
 
+import com.pavelhudau.random.RandomSource;
 import edu.princeton.cs.algs4.StdIn;
 import edu.princeton.cs.algs4.StdOut;
 
+import java.io.IOException;
+
 public class Permutation {
-    public static void main(String[] args) {
+    // usage: Permutation k [-reservoir]
+    // -reservoir keeps only k strings in memory, no matter how many strings the input has
+    public static void main(String[] args) throws IOException {
         int k = Integer.parseInt(args[0]);
-        RandomizedQueue<String> rangQ = new RandomizedQueue<>();
-        while (!StdIn.isEmpty()) {
-            String input = StdIn.readString();
-            rangQ.enqueue(input);
+        RandomizedQueue<String> rangQ;
+        if (args.length > 1 && "-reservoir".equals(args[1])) {
+            rangQ = sample(new TokenReader(System.in), k);
+        } else {
+            rangQ = new RandomizedQueue<>();
+            while (!StdIn.isEmpty()) {
+                String input = StdIn.readString();
+                rangQ.enqueue(input);
+            }
         }
 
         while (k > 0 && !rangQ.isEmpty()) {
@@ -17,4 +27,14 @@ public class Permutation {
             k--;
         }
     }
+
+    static RandomizedQueue<String> sample(TokenReader reader, int k) throws IOException {
+        // A single draw from the shared StdRandom seeds a fast unsynchronized generator for the stream.
+        RandomSource random = RandomSource.splittable(RandomSource.stdRandom().nextLong());
+        ReservoirSampler<String> sampler = new ReservoirSampler<>(k, random);
+        for (String input = reader.next(); input != null; input = reader.next()) {
+            sampler.add(input);
+        }
+        return sampler.sample();
+    }
 }
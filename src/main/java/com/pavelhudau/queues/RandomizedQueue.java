@@ -1,24 +1,41 @@
 package com.pavelhudau.queues;
 
-import edu.princeton.cs.algs4.StdRandom;
+import com.pavelhudau.random.RandomSource;
 
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class RandomizedQueue<Item> implements Iterable<Item> {
     private static final int EXPAND_RATIO = 2;
     private static final int SHRINK_RATIO = EXPAND_RATIO * 2;
 
+    private final RandomSource random;
     private Object[] items;
     private int size = 0;
+    // Number of changes, iterators fail fast when it changes under them.
+    private int modCount = 0;
 
     // construct an empty randomized queue
     public RandomizedQueue() {
-        items = new Object[0];
+        this(RandomSource.stdRandom());
     }
 
-    private RandomizedQueue(int capacity) {
-        items = new Object[capacity];
+    /**
+     * Constructs an empty randomized queue that draws random numbers from the given source.
+     *
+     * @param random Source of random numbers, e.g. RandomSource.splittable(seed) for a reproducible queue.
+     */
+    public RandomizedQueue(RandomSource random) {
+        if (random == null) {
+            throw new IllegalArgumentException("random can not be null");
+        }
+        this.random = random;
+        this.items = new Object[0];
     }
 
     // is the randomized queue empty?
@@ -43,6 +60,7 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
 
         this.items[this.size] = item;
         this.size ++;
+        this.modCount ++;
         this.randomSwap(this.size-1);
     }
 
@@ -55,6 +73,7 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         Item item = (Item) this.items[this.size - 1];
         this.items[this.size - 1] = null;
         this.size --;
+        this.modCount ++;
 
         if (this.size <= this.items.length / SHRINK_RATIO) {
             this.shrink();
@@ -68,12 +87,30 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         if (this.size == 0) {
             throw new NoSuchElementException("RandomizedQueue is empty");
         }
-        return (Item) this.items[StdRandom.uniform(this.size)];
+        return (Item) this.items[this.random.uniform(this.size)];
     }
 
-    // return an independent iterator over items in random order
+    // return an independent iterator over items in random order,
+    // it takes O(1) memory and fails fast if the queue changes while iterating
     public Iterator<Item> iterator() {
-        return new RandomizedQueueIterator(this);
+        return new RandomizedQueueIterator<>(this);
+    }
+
+    // return a spliterator over items in random order, it splits in O(1) and fails fast like the iterator
+    @Override
+    public Spliterator<Item> spliterator() {
+        return new RandomizedQueueSpliterator<>(
+                this, new FeistelPermutation(this.size, this.random.nextLong()), 0, this.size, this.modCount);
+    }
+
+    // return a sequential stream of items in random order
+    public Stream<Item> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    // return a parallel stream of items
+    public Stream<Item> parallelStream() {
+        return StreamSupport.stream(this.spliterator(), true);
     }
 
     // unit testing (required)
@@ -82,7 +119,7 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
     }
 
     private void randomSwap(int indexToSwap) {
-        int randPosition = StdRandom.uniform(this.size);
+        int randPosition = this.random.uniform(this.size);
         Object swappingItem = this.items[indexToSwap];
         this.items[indexToSwap] = this.items[randPosition];
         this.items[randPosition] = swappingItem;
@@ -108,23 +145,37 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         this.items = newItems;
     }
 
+    /**
+     * Walks items in the order of a random keyed permutation of indexes, which is computed one index at a time.
+     * Thus an iterator keeps a key and a counter only, and the first item is ready in O(1).
+     */
     private static class RandomizedQueueIterator<Item> implements Iterator<Item> {
-        private RandomizedQueue<Item> copy;
-        public RandomizedQueueIterator(RandomizedQueue<Item> randQueue) {
-            copy = new RandomizedQueue<Item>(randQueue.size);
-            for (int i = 0; i < randQueue.size; i++) {
-                copy.enqueue((Item) randQueue.items[i]);
-            }
+        private final RandomizedQueue<Item> randQueue;
+        private final FeistelPermutation permutation;
+        private final int expectedModCount;
+        private int position = 0;
+
+        private RandomizedQueueIterator(RandomizedQueue<Item> randQueue) {
+            this.randQueue = randQueue;
+            this.permutation = new FeistelPermutation(randQueue.size, randQueue.random.nextLong());
+            this.expectedModCount = randQueue.modCount;
         }
 
         @Override
         public boolean hasNext() {
-            return !copy.isEmpty();
+            return this.position < this.randQueue.size;
         }
 
         @Override
         public Item next() {
-            return copy.dequeue();
+            if (this.randQueue.modCount != this.expectedModCount) {
+                throw new ConcurrentModificationException("RandomizedQueue changed while iterating");
+            }
+            if (this.position >= this.randQueue.size) {
+                throw new NoSuchElementException("RandomizedQueue is empty");
+            }
+
+            return (Item) this.randQueue.items[this.permutation.apply(this.position++)];
         }
 
         @Override
@@ -132,4 +183,86 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
             throw new UnsupportedOperationException("remove is not supported");
         }
     }
+
+    /**
+     * Covers positions [index, fence) of a random permutation, item at position i is items[permutation.apply(i)].
+     * Splitting halves the range of positions and shares the permutation, which is immutable, so it is O(1).
+     */
+    private static class RandomizedQueueSpliterator<Item> implements Spliterator<Item> {
+        private final RandomizedQueue<Item> randQueue;
+        private final FeistelPermutation permutation;
+        private final int expectedModCount;
+        private int index;
+        private final int fence;
+
+        private RandomizedQueueSpliterator(RandomizedQueue<Item> randQueue, FeistelPermutation permutation,
+                                           int index, int fence, int expectedModCount) {
+            this.randQueue = randQueue;
+            this.permutation = permutation;
+            this.index = index;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super Item> action) {
+            if (action == null) {
+                throw new NullPointerException("action can not be null");
+            }
+            this.checkForModification();
+            if (this.index >= this.fence) {
+                return false;
+            }
+
+            action.accept((Item) this.randQueue.items[this.permutation.apply(this.index++)]);
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super Item> action) {
+            if (action == null) {
+                throw new NullPointerException("action can not be null");
+            }
+
+            Object[] items = this.randQueue.items;
+            int i = this.index;
+            this.index = this.fence;
+            for (; i < this.fence; i++) {
+                action.accept((Item) items[this.permutation.apply(i)]);
+            }
+            // Like ArrayList, checks once at the end rather than for every item.
+            this.checkForModification();
+        }
+
+        @Override
+        public Spliterator<Item> trySplit() {
+            int mid = (this.index + this.fence) >>> 1;
+            if (mid <= this.index) {
+                return null;
+            }
+
+            RandomizedQueueSpliterator<Item> prefix = new RandomizedQueueSpliterator<>(
+                    this.randQueue, this.permutation, this.index, mid, this.expectedModCount);
+            this.index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.fence - this.index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.NONNULL | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+
+        private void checkForModification() {
+            if (this.randQueue.modCount != this.expectedModCount) {
+                throw new ConcurrentModificationException("RandomizedQueue changed while iterating");
+            }
+        }
+    }
 }
@@ -0,0 +1,88 @@
+package com.pavelhudau.queues;
+
+import com.pavelhudau.random.RandomSource;
+
+/**
+ * Uniform random sample of k items out of a stream of unknown length, in O(k) memory (reservoir sampling).
+ * <p>
+ * The first k items fill the reservoir, then the i-th item (counting from 1) replaces a random reservoir slot
+ * with probability k / i. Thus after any number of items every k-subset is equally likely to be in the reservoir.
+ * <p>
+ * Rather than drawing a random number for every item, the sampler draws how many items to skip until the next
+ * replacement (Li's Algorithm L), so skipped items cost a comparison and only O(k log(n / k)) items
+ * of n draw random numbers.
+ */
+public class ReservoirSampler<Item> {
+    private final RandomSource random;
+    private final Object[] reservoir;
+    private long seen = 0;
+    // Number of the item that replaces a reservoir slot next.
+    private long next = 0;
+    // Largest of k uniform random numbers, the sample is the k items with the smallest random keys.
+    private double w = 0;
+
+    /**
+     * @param k      Sample size.
+     * @param random Source of random numbers.
+     */
+    public ReservoirSampler(int k, RandomSource random) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be >= 0");
+        }
+        if (random == null) {
+            throw new IllegalArgumentException("random can not be null");
+        }
+        this.random = random;
+        this.reservoir = new Object[k];
+    }
+
+    // offer the next item of the stream
+    public void add(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item can not be null");
+        }
+
+        this.seen++;
+        if (this.seen <= this.reservoir.length) {
+            this.reservoir[(int) (this.seen - 1)] = item;
+            if (this.seen == this.reservoir.length) {
+                this.w = Math.exp(Math.log(this.uniformOpenClosed()) / this.reservoir.length);
+                this.skip();
+            }
+            return;
+        }
+
+        if (this.seen == this.next) {
+            this.reservoir[this.random.uniform(this.reservoir.length)] = item;
+            this.w *= Math.exp(Math.log(this.uniformOpenClosed()) / this.reservoir.length);
+            this.skip();
+        }
+    }
+
+    // return the number of items offered so far
+    public long seen() {
+        return this.seen;
+    }
+
+    // return the sampled items as a randomized queue, which dequeues them in random order
+    @SuppressWarnings("unchecked")
+    public RandomizedQueue<Item> sample() {
+        RandomizedQueue<Item> sample = new RandomizedQueue<>(this.random);
+        int size = (int) Math.min(this.seen, this.reservoir.length);
+        for (int i = 0; i < size; i++) {
+            sample.enqueue((Item) this.reservoir[i]);
+        }
+        return sample;
+    }
+
+    private void skip() {
+        // Number of skipped items is geometric with success probability w.
+        double skipped = Math.floor(Math.log(this.uniformOpenClosed()) / Math.log1p(-this.w));
+        this.next = this.seen + 1 + (long) Math.min(skipped, Long.MAX_VALUE / 2);
+    }
+
+    private double uniformOpenClosed() {
+        // 53 random bits make a uniform double in (0, 1], so that its logarithm is finite.
+        return ((this.random.nextLong() >>> 11) + 1) * 0x1.0p-53;
+    }
+}
@@ -0,0 +1,256 @@
+package com.pavelhudau.queues;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Deque of a circular resizing array, with the same contract as Deque.
+ * <p>
+ * Items are kept in a single array, front is at index head and the following items wrap around the end of the array.
+ * Unlike Deque it does not allocate a node with two links per item, thus it takes about one reference per item
+ * and iteration walks contiguous memory. Capacity is a power of two, so wrapping is a bit mask.
+ * The array doubles when full and halves when a quarter full, but never goes below the initial capacity.
+ * Removed slots are set to null, so the deque does not hold on to removed items.
+ */
+public class ResizingArrayDeque<Item> implements Iterable<Item> {
+    private static final int DEFAULT_CAPACITY = 8;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private final int minCapacity;
+    private Item[] items;
+    private int head = 0;
+    private int length = 0;
+
+    // construct an empty deque
+    public ResizingArrayDeque() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty deque that fits the given number of items without resizing.
+     *
+     * @param initialCapacity Number of items, rounded up to a power of two.
+     */
+    public ResizingArrayDeque(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("initialCapacity must be > 0");
+        }
+        if (initialCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("initialCapacity must be <= " + MAX_CAPACITY);
+        }
+
+        this.minCapacity = Integer.highestOneBit(initialCapacity) == initialCapacity
+                ? initialCapacity
+                : Integer.highestOneBit(initialCapacity) << 1;
+        this.items = newArray(this.minCapacity);
+    }
+
+    // is the deque empty?
+    public boolean isEmpty() {
+        return this.length == 0;
+    }
+
+    // return the number of items on the deque
+    public int size() {
+        return this.length;
+    }
+
+    // add the item to the front
+    public void addFirst(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("item can not be null");
+        }
+
+        this.growIfFull();
+        this.head = (this.head - 1) & (this.items.length - 1);
+        this.items[this.head] = item;
+        this.length++;
+    }
+
+    // add the item to the back
+    public void addLast(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("item can not be null");
+        }
+
+        this.growIfFull();
+        this.items[(this.head + this.length) & (this.items.length - 1)] = item;
+        this.length++;
+    }
+
+    // remove and return the item from the front
+    public Item removeFirst() {
+        if (this.length == 0) {
+            throw new NoSuchElementException("Deque is empty");
+        }
+
+        Item item = this.items[this.head];
+        // Avoids loitering
+        this.items[this.head] = null;
+        this.head = (this.head + 1) & (this.items.length - 1);
+        this.length--;
+        this.shrinkIfSparse();
+        return item;
+    }
+
+    // remove and return the item from the back
+    public Item removeLast() {
+        if (this.length == 0) {
+            throw new NoSuchElementException("Deque is empty");
+        }
+
+        int back = (this.head + this.length - 1) & (this.items.length - 1);
+        Item item = this.items[back];
+        // Avoids loitering
+        this.items[back] = null;
+        this.length--;
+        this.shrinkIfSparse();
+        return item;
+    }
+
+    // return an iterator over items in order from front to back
+    public Iterator<Item> iterator() {
+        return new ResizingArrayDequeIterator();
+    }
+
+    // return a spliterator over items in order from front to back, it splits in O(1) and binds to items when created
+    @Override
+    public Spliterator<Item> spliterator() {
+        return new ResizingArrayDequeSpliterator<>(this.items, this.head, 0, this.length);
+    }
+
+    // return a sequential stream of items in order from front to back
+    public Stream<Item> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    // return a parallel stream of items
+    public Stream<Item> parallelStream() {
+        return StreamSupport.stream(this.spliterator(), true);
+    }
+
+    private void growIfFull() {
+        if (this.length < this.items.length) {
+            return;
+        }
+        if (this.items.length == MAX_CAPACITY) {
+            throw new IllegalStateException("Deque is full");
+        }
+        this.resize(this.items.length * 2);
+    }
+
+    private void shrinkIfSparse() {
+        if (this.items.length > this.minCapacity && this.length <= this.items.length / 4) {
+            this.resize(this.items.length / 2);
+        }
+    }
+
+    private void resize(int capacity) {
+        Item[] resized = newArray(capacity);
+        // Unwraps items, so that front is at index 0.
+        int firstPart = Math.min(this.length, this.items.length - this.head);
+        System.arraycopy(this.items, this.head, resized, 0, firstPart);
+        System.arraycopy(this.items, 0, resized, firstPart, this.length - firstPart);
+        this.items = resized;
+        this.head = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <Item> Item[] newArray(int capacity) {
+        return (Item[]) new Object[capacity];
+    }
+
+    private class ResizingArrayDequeIterator implements Iterator<Item> {
+        private int position = 0;
+
+        @Override
+        public boolean hasNext() {
+            return this.position < length;
+        }
+
+        @Override
+        public Item next() {
+            if (this.position >= length) {
+                throw new NoSuchElementException("Deque is empty");
+            }
+
+            return items[(head + this.position++) & (items.length - 1)];
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove is not supported");
+        }
+    }
+
+    /**
+     * Covers positions [index, fence) counted from head, position i is at (head + i) mod capacity.
+     * Keeps the array it was created with, thus it does not see changes that resize the deque.
+     */
+    private static class ResizingArrayDequeSpliterator<Item> implements Spliterator<Item> {
+        private final Item[] items;
+        private final int head;
+        private int index;
+        private final int fence;
+
+        private ResizingArrayDequeSpliterator(Item[] items, int head, int index, int fence) {
+            this.items = items;
+            this.head = head;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Item> action) {
+            if (action == null) {
+                throw new NullPointerException("action can not be null");
+            }
+            if (this.index >= this.fence) {
+                return false;
+            }
+
+            action.accept(this.items[(this.head + this.index++) & (this.items.length - 1)]);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Item> action) {
+            if (action == null) {
+                throw new NullPointerException("action can not be null");
+            }
+
+            int mask = this.items.length - 1;
+            int i = this.index;
+            this.index = this.fence;
+            for (; i < this.fence; i++) {
+                action.accept(this.items[(this.head + i) & mask]);
+            }
+        }
+
+        @Override
+        public Spliterator<Item> trySplit() {
+            int mid = (this.index + this.fence) >>> 1;
+            if (mid <= this.index) {
+                return null;
+            }
+
+            ResizingArrayDequeSpliterator<Item> prefix =
+                    new ResizingArrayDequeSpliterator<>(this.items, this.head, this.index, mid);
+            this.index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.fence - this.index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+}
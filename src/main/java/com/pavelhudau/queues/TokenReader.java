@@ -0,0 +1,78 @@
+package com.pavelhudau.queues;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads whitespace separated UTF-8 tokens from a stream through a channel and a fixed size byte buffer.
+ * Memory is the buffer plus the longest token, no matter how long the input is.
+ * Separators are ASCII whitespace, which never occurs inside a multi byte UTF-8 character.
+ */
+class TokenReader {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private byte[] token = new byte[64];
+    private boolean endOfInput = false;
+
+    TokenReader(InputStream in) {
+        this.channel = Channels.newChannel(in);
+        // Nothing to read yet.
+        this.buffer.flip();
+    }
+
+    /**
+     * Reads the next token.
+     *
+     * @return Next token or null at the end of input.
+     * @throws IOException if the stream can not be read.
+     */
+    String next() throws IOException {
+        int length = 0;
+        while (true) {
+            if (!this.buffer.hasRemaining() && !this.fill()) {
+                return length > 0 ? new String(this.token, 0, length, StandardCharsets.UTF_8) : null;
+            }
+
+            byte b = this.buffer.get();
+            if (isWhitespace(b)) {
+                if (length > 0) {
+                    return new String(this.token, 0, length, StandardCharsets.UTF_8);
+                }
+                continue;
+            }
+
+            if (length == this.token.length) {
+                this.token = Arrays.copyOf(this.token, 2 * length);
+            }
+            this.token[length++] = b;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        if (this.endOfInput) {
+            return false;
+        }
+
+        this.buffer.clear();
+        int read;
+        do {
+            read = this.channel.read(this.buffer);
+        } while (read == 0);
+        this.buffer.flip();
+        if (read < 0) {
+            this.endOfInput = true;
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f' || b == 0x0B;
+    }
+}
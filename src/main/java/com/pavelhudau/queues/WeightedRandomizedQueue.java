@@ -0,0 +1,244 @@
+package com.pavelhudau.queues;
+
+import com.pavelhudau.random.RandomSource;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Randomized queue that samples and dequeues an item with probability proportional to its weight.
+ * <p>
+ * Items are kept densely in slots [0, size), weights are leaves of a sum tree over a primitive double array:
+ * node i is the sum of nodes 2i and 2i + 1, leaf of slot s is node capacity + s, the root is node 1.
+ * Sampling draws a number in [0, total weight) and descends from the root, so it is O(log n).
+ * Removal moves the last item into the freed slot, so enqueue, sample, dequeue, remove and weight updates
+ * are all O(log n), plus amortized resizing.
+ * Every inner node is recomputed from its children rather than adjusted by a delta, so rounding errors
+ * do not pile up after many weight updates.
+ * <p>
+ * enqueue() returns a handle of the item, which follows the item when it moves between slots
+ * and is used to update the weight or remove the item.
+ */
+public class WeightedRandomizedQueue<Item> {
+    private static final int MIN_CAPACITY = 2;
+
+    private final RandomSource random;
+    private Handle<Item>[] handles;
+    private double[] weights;
+    private int size = 0;
+
+    // construct an empty weighted randomized queue
+    public WeightedRandomizedQueue() {
+        this(RandomSource.stdRandom());
+    }
+
+    /**
+     * Constructs an empty weighted randomized queue that draws random numbers from the given source.
+     *
+     * @param random Source of random numbers, e.g. RandomSource.splittable(seed) for a reproducible queue.
+     */
+    public WeightedRandomizedQueue(RandomSource random) {
+        if (random == null) {
+            throw new IllegalArgumentException("random can not be null");
+        }
+        this.random = random;
+        this.handles = newHandles(MIN_CAPACITY);
+        this.weights = new double[2 * MIN_CAPACITY];
+    }
+
+    // is the queue empty?
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    // return the number of items on the queue
+    public int size() {
+        return this.size;
+    }
+
+    // return the sum of weights of all items
+    public double totalWeight() {
+        return this.weights[1];
+    }
+
+    /**
+     * Adds the item.
+     *
+     * @param item   Item to add.
+     * @param weight Weight of the item, finite and >= 0. An item of 0 weight is never sampled.
+     * @return Handle of the item, for weight updates and removal.
+     */
+    public Handle<Item> enqueue(Item item, double weight) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item can not be null");
+        }
+        validateWeight(weight);
+
+        if (this.size == this.handles.length) {
+            this.resize(2 * this.handles.length);
+        }
+
+        Handle<Item> handle = new Handle<>(this, item, this.size);
+        this.handles[this.size] = handle;
+        this.size++;
+        this.setLeaf(handle.slot, weight);
+        return handle;
+    }
+
+    // remove and return a random item, picked with probability proportional to its weight
+    public Item dequeue() {
+        return this.removeSlot(this.randomSlot());
+    }
+
+    // return a random item, picked with probability proportional to its weight (but do not remove it)
+    public Item sample() {
+        return this.handles[this.randomSlot()].item;
+    }
+
+    /**
+     * Weight of an item.
+     *
+     * @param handle Handle of an item on the queue.
+     * @return Current weight of the item.
+     */
+    public double weight(Handle<Item> handle) {
+        this.validateHandle(handle);
+        return this.weights[this.handles.length + handle.slot];
+    }
+
+    /**
+     * Changes weight of an item.
+     *
+     * @param handle Handle of an item on the queue.
+     * @param weight New weight of the item, finite and >= 0.
+     */
+    public void setWeight(Handle<Item> handle, double weight) {
+        this.validateHandle(handle);
+        validateWeight(weight);
+        this.setLeaf(handle.slot, weight);
+    }
+
+    /**
+     * Removes an item regardless of its weight.
+     *
+     * @param handle Handle of an item on the queue.
+     * @return The removed item.
+     */
+    public Item remove(Handle<Item> handle) {
+        this.validateHandle(handle);
+        return this.removeSlot(handle.slot);
+    }
+
+    private int randomSlot() {
+        if (this.size == 0) {
+            throw new NoSuchElementException("WeightedRandomizedQueue is empty");
+        }
+        double total = this.weights[1];
+        if (total <= 0) {
+            throw new IllegalStateException("All weights are 0");
+        }
+
+        // 53 random bits make a uniform double in [0, 1).
+        double target = (this.random.nextLong() >>> 11) * 0x1.0p-53 * total;
+        int capacity = this.handles.length;
+        int node = 1;
+        while (node < capacity) {
+            int left = 2 * node;
+            // Right is taken only if it has weight, so rounding never lands on an empty leaf.
+            if (target >= this.weights[left] && this.weights[left + 1] > 0) {
+                target -= this.weights[left];
+                node = left + 1;
+            } else {
+                node = left;
+            }
+        }
+        return node - capacity;
+    }
+
+    private Item removeSlot(int slot) {
+        Handle<Item> removed = this.handles[slot];
+        int last = this.size - 1;
+        if (slot != last) {
+            Handle<Item> moved = this.handles[last];
+            moved.slot = slot;
+            this.handles[slot] = moved;
+            this.setLeaf(slot, this.weights[this.handles.length + last]);
+        }
+        this.setLeaf(last, 0);
+        // Avoids loitering
+        this.handles[last] = null;
+        this.size--;
+        removed.slot = -1;
+
+        if (this.handles.length > MIN_CAPACITY && this.size <= this.handles.length / 4) {
+            this.resize(this.handles.length / 2);
+        }
+        return removed.item;
+    }
+
+    private void setLeaf(int slot, double weight) {
+        int node = this.handles.length + slot;
+        this.weights[node] = weight;
+        for (node >>= 1; node > 0; node >>= 1) {
+            this.weights[node] = this.weights[2 * node] + this.weights[2 * node + 1];
+        }
+    }
+
+    private void resize(int capacity) {
+        Handle<Item>[] resizedHandles = newHandles(capacity);
+        double[] resizedWeights = new double[2 * capacity];
+        System.arraycopy(this.handles, 0, resizedHandles, 0, this.size);
+        System.arraycopy(this.weights, this.handles.length, resizedWeights, capacity, this.size);
+        // Builds inner nodes bottom up in O(capacity).
+        for (int node = capacity - 1; node > 0; node--) {
+            resizedWeights[node] = resizedWeights[2 * node] + resizedWeights[2 * node + 1];
+        }
+        this.handles = resizedHandles;
+        this.weights = resizedWeights;
+    }
+
+    private void validateHandle(Handle<Item> handle) {
+        if (handle == null) {
+            throw new IllegalArgumentException("handle can not be null");
+        }
+        if (handle.queue != this || handle.slot < 0) {
+            throw new IllegalArgumentException("handle is not on this queue");
+        }
+    }
+
+    private static void validateWeight(double weight) {
+        if (!(weight >= 0) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException("weight must be finite and >= 0");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <Item> Handle<Item>[] newHandles(int capacity) {
+        return (Handle<Item>[]) new Handle<?>[capacity];
+    }
+
+    /**
+     * Reference to an item on a queue. It stays valid until the item is dequeued or removed.
+     */
+    public static final class Handle<Item> {
+        private final WeightedRandomizedQueue<Item> queue;
+        private final Item item;
+        // Slot of the item, -1 once it is off the queue.
+        private int slot;
+
+        private Handle(WeightedRandomizedQueue<Item> queue, Item item, int slot) {
+            this.queue = queue;
+            this.item = item;
+            this.slot = slot;
+        }
+
+        // the item
+        public Item item() {
+            return this.item;
+        }
+
+        // is the item still on the queue?
+        public boolean isQueued() {
+            return this.slot >= 0;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.pavelhudau.queues;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free work-stealing deque (Chase–Lev).
+ * <p>
+ * A single owner thread adds and removes items at the back with addLast() and removeLast(),
+ * any number of other threads take items from the front with steal(). The owner does not lock at all,
+ * it needs a compare-and-set only to take the very last item, when it races with thieves.
+ * Thieves compete with a compare-and-set on the front index.
+ * <p>
+ * Items are kept in a circular array that doubles when full. Indexes only grow, item i is at i mod capacity.
+ * Since thieves and the owner race for items, emptiness is reported by returning null instead of an exception.
+ * Slots of stolen items are not cleared, they are overwritten when the owner wraps around the array,
+ * so at most capacity removed items can stay reachable.
+ */
+public class WorkStealingDeque<Item> {
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final int MAX_CAPACITY = 1 << 30;
+    // Index of the front item, advanced by thieves and by the owner taking the last item.
+    private final AtomicLong top = new AtomicLong();
+    // Index after the back item, written by the owner only.
+    private volatile long bottom = 0;
+    private volatile Object[] items;
+
+    // construct an empty deque
+    public WorkStealingDeque() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty deque that fits the given number of items without resizing.
+     *
+     * @param initialCapacity Number of items, rounded up to a power of two.
+     */
+    public WorkStealingDeque(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("initialCapacity must be > 0");
+        }
+        if (initialCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("initialCapacity must be <= " + MAX_CAPACITY);
+        }
+
+        this.items = new Object[Integer.highestOneBit(initialCapacity) == initialCapacity
+                ? initialCapacity
+                : Integer.highestOneBit(initialCapacity) << 1];
+    }
+
+    // is the deque empty? a snapshot that may be outdated by the time it returns
+    public boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    // return the number of items on the deque, a snapshot that may be outdated by the time it returns
+    public int size() {
+        long size = this.bottom - this.top.get();
+        return size > 0 ? (int) size : 0;
+    }
+
+    /**
+     * Adds the item to the back. Must be called by the owner thread only.
+     *
+     * @param item Item to add.
+     */
+    public void addLast(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("item can not be null");
+        }
+
+        long b = this.bottom;
+        long t = this.top.get();
+        Object[] a = this.items;
+        if (b - t >= a.length) {
+            a = this.grow(a, t, b);
+        }
+        a[(int) b & (a.length - 1)] = item;
+        // Publishes the item, thieves read bottom before they read the item.
+        this.bottom = b + 1;
+    }
+
+    /**
+     * Removes and returns the item from the back. Must be called by the owner thread only.
+     *
+     * @return The back item or null if the deque is empty.
+     */
+    @SuppressWarnings("unchecked")
+    public Item removeLast() {
+        long b = this.bottom - 1;
+        Object[] a = this.items;
+        // Claims the back item first, then checks whether thieves got to it.
+        this.bottom = b;
+        long t = this.top.get();
+        if (t > b) {
+            // Empty
+            this.bottom = b + 1;
+            return null;
+        }
+
+        int slot = (int) b & (a.length - 1);
+        Item item = (Item) a[slot];
+        if (t < b) {
+            // Thieves can not reach this item anymore.
+            a[slot] = null;
+            return item;
+        }
+
+        // The last item, races with thieves for it.
+        if (!this.top.compareAndSet(t, t + 1)) {
+            item = null;
+        }
+        this.bottom = b + 1;
+        return item;
+    }
+
+    /**
+     * Removes and returns the item from the front. Can be called by any thread.
+     *
+     * @return The front item, or null if the deque is empty or another thread took the item first.
+     */
+    @SuppressWarnings("unchecked")
+    public Item steal() {
+        long t = this.top.get();
+        long b = this.bottom;
+        if (t >= b) {
+            return null;
+        }
+
+        Object[] a = this.items;
+        Item item = (Item) a[(int) t & (a.length - 1)];
+        if (!this.top.compareAndSet(t, t + 1)) {
+            return null;
+        }
+        return item;
+    }
+
+    private Object[] grow(Object[] a, long t, long b) {
+        if (a.length == MAX_CAPACITY) {
+            throw new IllegalStateException("Deque is full");
+        }
+
+        // Items keep their indexes, so thieves that still read the old array get the same items.
+        Object[] grown = new Object[a.length * 2];
+        for (long i = t; i < b; i++) {
+            grown[(int) i & (grown.length - 1)] = a[(int) i & (a.length - 1)];
+        }
+        this.items = grown;
+        return grown;
+    }
+}
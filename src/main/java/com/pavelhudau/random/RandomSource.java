@@ -0,0 +1,52 @@
+package com.pavelhudau.random;
+
+/**
+ * Source of random numbers that classes drawing random numbers accept in their constructors,
+ * so a caller can pick between the algs4 global generator, a seeded generator per object or a thread local one.
+ */
+public interface RandomSource {
+    /**
+     * Returns uniformly distributed integer.
+     *
+     * @param n Upper bound, must be positive.
+     * @return Integer in [0, n).
+     */
+    int uniform(int n);
+
+    /**
+     * Returns uniformly distributed long.
+     *
+     * @return Any long value.
+     */
+    long nextLong();
+
+    /**
+     * Shared algs4 StdRandom, the default of classes that draw random numbers.
+     * It is reproducible with StdRandom.setSeed, but every call synchronizes on a single global generator.
+     *
+     * @return Source backed by StdRandom.
+     */
+    static RandomSource stdRandom() {
+        return StdRandomSource.INSTANCE;
+    }
+
+    /**
+     * Fast seeded generator for a single thread. Objects that get their own source are reproducible
+     * no matter what other threads do.
+     *
+     * @param seed Seed.
+     * @return Source backed by a new SplittableRandom, not thread safe.
+     */
+    static RandomSource splittable(long seed) {
+        return new SplittableRandomSource(seed);
+    }
+
+    /**
+     * Generator of the current thread, never contended. Not reproducible.
+     *
+     * @return Source backed by ThreadLocalRandom, can be shared by threads.
+     */
+    static RandomSource threadLocal() {
+        return ThreadLocalRandomSource.INSTANCE;
+    }
+}
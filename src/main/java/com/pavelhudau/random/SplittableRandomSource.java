@@ -0,0 +1,24 @@
+package com.pavelhudau.random;
+
+import java.util.SplittableRandom;
+
+final class SplittableRandomSource implements RandomSource {
+    private final SplittableRandom random;
+
+    SplittableRandomSource(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public int uniform(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be > 0");
+        }
+        return this.random.nextInt(n);
+    }
+
+    @Override
+    public long nextLong() {
+        return this.random.nextLong();
+    }
+}
@@ -0,0 +1,21 @@
+package com.pavelhudau.random;
+
+import edu.princeton.cs.algs4.StdRandom;
+
+final class StdRandomSource implements RandomSource {
+    static final StdRandomSource INSTANCE = new StdRandomSource();
+
+    private StdRandomSource() {
+    }
+
+    @Override
+    public int uniform(int n) {
+        return StdRandom.uniform(n);
+    }
+
+    @Override
+    public long nextLong() {
+        // StdRandom has no unbounded long, the sign bit is drawn separately.
+        return StdRandom.uniform(Long.MAX_VALUE) | ((long) StdRandom.uniform(2) << 63);
+    }
+}
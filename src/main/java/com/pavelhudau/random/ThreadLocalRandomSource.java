@@ -0,0 +1,24 @@
+package com.pavelhudau.random;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+final class ThreadLocalRandomSource implements RandomSource {
+    static final ThreadLocalRandomSource INSTANCE = new ThreadLocalRandomSource();
+
+    private ThreadLocalRandomSource() {
+    }
+
+    @Override
+    public int uniform(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be > 0");
+        }
+        // Must not be cached in a field, ThreadLocalRandom.current() is the generator of the calling thread.
+        return ThreadLocalRandom.current().nextInt(n);
+    }
+
+    @Override
+    public long nextLong() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+}
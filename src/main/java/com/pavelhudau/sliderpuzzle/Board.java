@@ -3,10 +3,11 @@ package com.pavelhudau.sliderpuzzle;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
-import edu.princeton.cs.algs4.StdRandom;
+import com.pavelhudau.random.RandomSource;
 
 public class Board {
     private final int[][] tiles;
+    private final RandomSource random;
     private int hammingValue;
     private int manhattanValue;
     private TwinGenerator twinGenerator;
@@ -17,10 +18,24 @@ public class Board {
      * @param tiles tiles[row][col] = tile at (row, col)
      */
     public Board(int[][] tiles) {
-        this(tiles, true);
+        this(tiles, RandomSource.stdRandom());
     }
 
-    private Board(int[][] tiles, boolean preCalculate) {
+    /**
+     * Create a board from an n-by-n array of tiles, that picks twin tiles with the given source of random numbers.
+     *
+     * @param tiles  tiles[row][col] = tile at (row, col)
+     * @param random source of random numbers, neighbors of the board share it
+     */
+    public Board(int[][] tiles, RandomSource random) {
+        this(tiles, random, true);
+    }
+
+    private Board(int[][] tiles, RandomSource random, boolean preCalculate) {
+        if (random == null) {
+            throw new IllegalArgumentException("random can not be null");
+        }
+        this.random = random;
         this.tiles = new int[tiles.length][tiles.length];
         for (int i = 0; i < this.tiles.length; i++) {
             System.arraycopy(tiles[i], 0, this.tiles[i], 0, this.tiles[i].length);
@@ -234,7 +249,7 @@ public class Board {
 
             // Top neighbor
             if (iZero > 0) {
-                Board topNeighbor = new Board(board.tiles, false);
+                Board topNeighbor = new Board(board.tiles, board.random, false);
                 topNeighbor.exchangeTiles(iZero, jZero, iZero - 1, jZero);
                 topNeighbor.preCalculate();
                 this.maxBoardIdx++;
@@ -243,7 +258,7 @@ public class Board {
 
             // Bottom neighbor
             if (iZero + 1 < board.dimension()) {
-                Board bottomNeighbor = new Board(board.tiles, false);
+                Board bottomNeighbor = new Board(board.tiles, board.random, false);
                 bottomNeighbor.exchangeTiles(iZero, jZero, iZero + 1, jZero);
                 bottomNeighbor.preCalculate();
                 this.maxBoardIdx++;
@@ -252,7 +267,7 @@ public class Board {
 
             // Left neighbor
             if (jZero > 0) {
-                Board leftNeighbor = new Board(board.tiles, false);
+                Board leftNeighbor = new Board(board.tiles, board.random, false);
                 leftNeighbor.exchangeTiles(iZero, jZero, iZero, jZero - 1);
                 leftNeighbor.preCalculate();
                 this.maxBoardIdx++;
@@ -261,7 +276,7 @@ public class Board {
 
             // Right neighbor
             if (jZero + 1 < board.dimension()) {
-                Board rightNeighbor = new Board(board.tiles, false);
+                Board rightNeighbor = new Board(board.tiles, board.random, false);
                 rightNeighbor.exchangeTiles(iZero, jZero, iZero, jZero + 1);
                 rightNeighbor.preCalculate();
                 this.maxBoardIdx++;
@@ -297,8 +312,8 @@ public class Board {
 
         public TwinGenerator() {
             int dimension = dimension();
-            this.twinDeltaA = StdRandom.uniform(dimension);
-            this.twinDeltaB = StdRandom.uniform(dimension);
+            this.twinDeltaA = random.uniform(dimension);
+            this.twinDeltaB = random.uniform(dimension);
         }
 
         public Board next() {
@@ -329,7 +344,7 @@ public class Board {
                     continue;
                 }
 
-                Board twinBoard = new Board(tiles, false);
+                Board twinBoard = new Board(tiles, random, false);
                 twinBoard.exchangeTiles(ai, aj, bi, bj);
                 twinBoard.preCalculate();
 
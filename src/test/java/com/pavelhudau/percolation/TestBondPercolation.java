@@ -0,0 +1,117 @@
+package com.pavelhudau.percolation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestBondPercolation {
+    @Test
+    void testNumberOfBonds() {
+        // n * (n - 1) horizontal and as many vertical bonds.
+        assertEquals(2 * 3 * 2, new BondPercolation(3).numberOfBonds());
+        assertEquals(3 * 4 * 4 * 3, new BondPercolation(new CubicLattice(4)).numberOfBonds());
+    }
+
+    @Test
+    void testCountBondsMatchesBuiltSystem() {
+        for (String name : new String[]{"square", "triangular", "honeycomb", "cubic"}) {
+            Lattice lattice = GridLattice.named(name, 5);
+            assertEquals(new BondPercolation(lattice).numberOfBonds(), BondPercolation.countBonds(lattice), name);
+        }
+        assertEquals(2 * 3 * 2, BondPercolation.countBonds(new SquareLattice(3)));
+    }
+
+    @Test
+    void testBondsConnectNeighbors() {
+        BondPercolation percolation = new BondPercolation(3);
+        for (int bond = 0; bond < percolation.numberOfBonds(); bond++) {
+            int from = percolation.bondFrom(bond);
+            int to = percolation.bondTo(bond);
+            assertTrue(to == from + 1 || to == from + 3);
+            assertFalse(percolation.isOpenBond(bond));
+        }
+    }
+
+    @Test
+    void testSingleSiteGridPercolatesWithoutBonds() {
+        BondPercolation percolation = new BondPercolation(1);
+        assertEquals(0, percolation.numberOfBonds());
+        assertTrue(percolation.percolates());
+    }
+
+    @Test
+    void testPercolatesWhenColumnOfBondsIsOpen() {
+        BondPercolation percolation = new BondPercolation(3);
+        assertFalse(percolation.percolates());
+        openBond(percolation, 1, 4);
+        assertFalse(percolation.percolates());
+        openBond(percolation, 4, 7);
+        assertTrue(percolation.percolates());
+        assertEquals(2, percolation.numberOfOpenBonds());
+    }
+
+    @Test
+    void testHorizontalBondsDoNotPercolate() {
+        BondPercolation percolation = new BondPercolation(3);
+        for (int bond = 0; bond < percolation.numberOfBonds(); bond++) {
+            if (percolation.bondTo(bond) == percolation.bondFrom(bond) + 1) {
+                percolation.openBond(bond);
+            }
+        }
+        assertEquals(6, percolation.numberOfOpenBonds());
+        assertFalse(percolation.percolates());
+    }
+
+    @Test
+    void testOpenBondTwiceCountsOnce() {
+        BondPercolation percolation = new BondPercolation(3);
+        percolation.openBond(0);
+        percolation.openBond(0);
+        assertEquals(1, percolation.numberOfOpenBonds());
+        assertTrue(percolation.isOpenBond(0));
+    }
+
+    @Test
+    void testReset() {
+        BondPercolation percolation = new BondPercolation(2);
+        openBond(percolation, 0, 2);
+        assertTrue(percolation.percolates());
+        percolation.reset();
+        assertFalse(percolation.percolates());
+        assertEquals(0, percolation.numberOfOpenBonds());
+        openBond(percolation, 1, 3);
+        assertTrue(percolation.percolates());
+    }
+
+    @Test
+    void testTrialThresholdIsFractionOfBonds() {
+        BondPercolationTrial trial = new BondPercolationTrial(new SquareLattice(5));
+        TrialRandom random = new TrialRandom();
+        random.startTrial(1L, 0);
+        double threshold = trial.run(random);
+        assertTrue(threshold > 0);
+        assertTrue(threshold <= 1);
+        // Percolation needs at least a column of 4 bonds out of 40.
+        assertTrue(threshold >= 0.1);
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new BondPercolation(0));
+        assertThrows(IllegalArgumentException.class, () -> new BondPercolation(null));
+        BondPercolation percolation = new BondPercolation(3);
+        assertThrows(IllegalArgumentException.class, () -> percolation.openBond(-1));
+        assertThrows(IllegalArgumentException.class, () -> percolation.openBond(percolation.numberOfBonds()));
+        assertThrows(IllegalArgumentException.class, () -> percolation.isOpenBond(12));
+    }
+
+    private static void openBond(BondPercolation percolation, int from, int to) {
+        for (int bond = 0; bond < percolation.numberOfBonds(); bond++) {
+            if (percolation.bondFrom(bond) == from && percolation.bondTo(bond) == to) {
+                percolation.openBond(bond);
+                return;
+            }
+        }
+        fail("No bond between " + from + " and " + to);
+    }
+}
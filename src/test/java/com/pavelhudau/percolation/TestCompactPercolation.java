@@ -0,0 +1,116 @@
+package com.pavelhudau.percolation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestCompactPercolation {
+    // Small segments, so that sites of a grid span several buffers.
+    private static final int SMALL_SEGMENT_SHIFT = 3;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testPercolatesSimpleWhenPercolates() {
+        CompactPercolation percolation = new CompactPercolation(3);
+        percolation.open(2, 2);
+        percolation.open(1, 2);
+        assertFalse(percolation.percolates());
+        percolation.open(3, 2);
+        assertTrue(percolation.percolates());
+        assertEquals(3, percolation.numberOfOpenSites());
+    }
+
+    @Test
+    void testPercolatesWith1by1() {
+        CompactPercolation percolation = new CompactPercolation(1);
+        assertFalse(percolation.percolates());
+        percolation.open(1, 1);
+        assertTrue(percolation.percolates());
+        assertTrue(percolation.isFull(1, 1));
+    }
+
+    @Test
+    void testIsFullWhenPercolatesThenNoBackwash() {
+        CompactPercolation percolation = new CompactPercolation(3);
+        percolation.open(1, 1);
+        percolation.open(2, 1);
+        percolation.open(3, 1);
+        percolation.open(3, 3);
+        assertTrue(percolation.percolates());
+        assertFalse(percolation.isFull(3, 3));
+        assertTrue(percolation.isFull(3, 1));
+    }
+
+    @Test
+    void testNumberOfOpenSitesWhenOpenedTwice() {
+        CompactPercolation percolation = new CompactPercolation(3);
+        percolation.open(2, 2);
+        percolation.open(2, 2);
+        assertEquals(1, percolation.numberOfOpenSites());
+        assertTrue(percolation.isOpen(2, 2));
+        assertFalse(percolation.isOpen(2, 3));
+    }
+
+    @Test
+    void testWhenOutOfRangeThenExceptionIsThrown() {
+        assertThrows(IllegalArgumentException.class, () -> new CompactPercolation(0));
+        assertThrows(IllegalArgumentException.class, () -> new CompactPercolation(CompactPercolation.MAX_N + 1));
+        CompactPercolation percolation = new CompactPercolation(3);
+        assertThrows(IllegalArgumentException.class, () -> percolation.open(4, 1));
+        assertThrows(IllegalArgumentException.class, () -> percolation.isOpen(1, 0));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 30})
+    void testHeapMatchesPercolation(int n) {
+        assertMatchesPercolation(n, new CompactPercolation(n));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 30})
+    void testOffHeapMatchesPercolation(int n) {
+        assertMatchesPercolation(n, new CompactPercolation(n, BufferIntArray.direct(n * n, SMALL_SEGMENT_SHIFT)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 30})
+    void testMappedMatchesPercolation(int n) throws IOException {
+        Path file = this.tempDir.resolve("percolation-" + n);
+        assertMatchesPercolation(n, new CompactPercolation(n, BufferIntArray.mapped(file, n * n, SMALL_SEGMENT_SHIFT)));
+    }
+
+    @Test
+    void testOffHeapAndMappedFactories() throws IOException {
+        assertMatchesPercolation(10, CompactPercolation.offHeap(10));
+        assertMatchesPercolation(10, CompactPercolation.mapped(10, this.tempDir.resolve("percolation")));
+    }
+
+    private static void assertMatchesPercolation(int n, CompactPercolation compact) {
+        Percolation percolation = new Percolation(n);
+        SplittableRandom random = new SplittableRandom(n);
+        for (int opened = 0; opened < n * n; opened++) {
+            int row = random.nextInt(n) + 1;
+            int col = random.nextInt(n) + 1;
+            percolation.open(row, col);
+            compact.open(row, col);
+            assertEquals(percolation.percolates(), compact.percolates());
+            assertEquals(percolation.numberOfOpenSites(), compact.numberOfOpenSites());
+        }
+
+        for (int row = 1; row <= n; row++) {
+            for (int col = 1; col <= n; col++) {
+                assertEquals(percolation.isOpen(row, col), compact.isOpen(row, col));
+                assertEquals(percolation.isFull(row, col), compact.isFull(row, col));
+            }
+        }
+    }
+}
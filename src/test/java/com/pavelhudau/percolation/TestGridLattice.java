@@ -0,0 +1,89 @@
+package com.pavelhudau.percolation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestGridLattice {
+    @Test
+    void testSquareLatticeNeighbors() {
+        SquareLattice lattice = new SquareLattice(3);
+        assertEquals(9, lattice.size());
+        assertEquals(4, lattice.maxNeighbors());
+        assertArrayEquals(new int[]{1, 3}, neighbors(lattice, 0));
+        assertArrayEquals(new int[]{1, 3, 5, 7}, neighbors(lattice, 4));
+        assertArrayEquals(new int[]{5, 7}, neighbors(lattice, 8));
+    }
+
+    @Test
+    void testNamedLatticeRoundTrips() {
+        for (String name : new String[]{"square", "triangular", "honeycomb", "cubic"}) {
+            GridLattice lattice = GridLattice.named(name, 4);
+            assertEquals(name, GridLattice.nameOf(lattice));
+            assertEquals(4, lattice.width());
+        }
+        assertEquals(64, GridLattice.named("cubic", 4).size());
+        assertNull(GridLattice.nameOf(new SquareLattice(4) {
+        }));
+        assertThrows(IllegalArgumentException.class, () -> GridLattice.named("hexagonal", 4));
+    }
+
+    @Test
+    void testCubicLatticeNeighbors() {
+        CubicLattice lattice = new CubicLattice(3);
+        assertEquals(27, lattice.size());
+        assertEquals(6, lattice.maxNeighbors());
+        // (1, 1, 1) is the center of the cube.
+        assertArrayEquals(new int[]{4, 10, 12, 14, 16, 22}, neighbors(lattice, 13));
+        assertArrayEquals(new int[]{1, 3, 9}, neighbors(lattice, 0));
+    }
+
+    @Test
+    void testTriangularLatticeNeighbors() {
+        TriangularLattice lattice = new TriangularLattice(3);
+        assertEquals(6, lattice.maxNeighbors());
+        assertArrayEquals(new int[]{1, 2, 3, 5, 6, 7}, neighbors(lattice, 4));
+        assertArrayEquals(new int[]{1, 3}, neighbors(lattice, 0));
+        assertArrayEquals(new int[]{1, 4, 5}, neighbors(lattice, 2));
+    }
+
+    @Test
+    void testHoneycombLatticeNeighbors() {
+        HoneycombLattice lattice = new HoneycombLattice(4);
+        assertEquals(3, lattice.maxNeighbors());
+        // (1, 1) is even and is connected down, (2, 1) is odd and is connected up.
+        assertArrayEquals(new int[]{4, 6, 9}, neighbors(lattice, 5));
+        assertArrayEquals(new int[]{2, 5, 7}, neighbors(lattice, 6));
+        for (int site = 0; site < lattice.size(); site++) {
+            for (int neighbor : neighbors(lattice, site)) {
+                assertTrue(Arrays.binarySearch(neighbors(lattice, neighbor), site) >= 0);
+            }
+        }
+    }
+
+    @Test
+    void testTopAndBottom() {
+        CubicLattice lattice = new CubicLattice(3);
+        for (int site = 0; site < lattice.size(); site++) {
+            int y = (site / 3) % 3;
+            assertEquals(y == 0, lattice.isTop(site));
+            assertEquals(y == 2, lattice.isBottom(site));
+        }
+    }
+
+    @Test
+    void testWhenTooBigThenExceptionIsThrown() {
+        assertThrows(IllegalArgumentException.class, () -> new CubicLattice(2000));
+        assertThrows(IllegalArgumentException.class, () -> new SquareLattice(0));
+    }
+
+    private static int[] neighbors(Lattice lattice, int site) {
+        int[] buffer = new int[lattice.maxNeighbors()];
+        int count = lattice.neighbors(site, buffer);
+        int[] neighbors = Arrays.copyOf(buffer, count);
+        Arrays.sort(neighbors);
+        return neighbors;
+    }
+}
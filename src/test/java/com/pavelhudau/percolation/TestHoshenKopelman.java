@@ -0,0 +1,141 @@
+package com.pavelhudau.percolation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestHoshenKopelman {
+    @Test
+    void testSmallConfiguration() {
+        boolean[] openSites = field(
+                "X.X.",
+                "X.XX",
+                "..X.",
+                "XX.X");
+        HoshenKopelman labeling = new HoshenKopelman(4, openSites, 1);
+        assertFalse(labeling.percolates());
+        assertEquals(4, labeling.clusterCount());
+        assertEquals(4, labeling.largestClusterSize());
+        assertArrayEquals(new int[]{4, 2, 2, 1}, labeling.clusterSizes());
+    }
+
+    @Test
+    void testPercolatesThroughStrips() {
+        boolean[] openSites = field(
+                ".X..",
+                ".XX.",
+                "..X.",
+                "XXX.");
+        for (int parallelism = 1; parallelism <= 4; parallelism++) {
+            HoshenKopelman labeling = new HoshenKopelman(4, openSites, parallelism);
+            assertTrue(labeling.percolates());
+            assertEquals(1, labeling.clusterCount());
+            assertEquals(7, labeling.largestClusterSize());
+        }
+    }
+
+    @Test
+    void testNoOpenSites() {
+        HoshenKopelman labeling = new HoshenKopelman(3, new boolean[9], 2);
+        assertFalse(labeling.percolates());
+        assertEquals(0, labeling.clusterCount());
+        assertEquals(0, labeling.largestClusterSize());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 7})
+    void testSameAsOpeningSitesOneByOne(int parallelism) {
+        int n = 60;
+        for (long seed = 0; seed < 5; seed++) {
+            boolean[] openSites = HoshenKopelman.randomField(n, 0.59, seed);
+            Percolation percolation = new Percolation(n);
+            for (int i = 0; i < openSites.length; i++) {
+                if (openSites[i]) {
+                    percolation.open(i / n + 1, i % n + 1);
+                }
+            }
+
+            HoshenKopelman labeling = new HoshenKopelman(n, openSites, parallelism);
+            assertEquals(percolation.percolates(), labeling.percolates());
+            assertArrayEquals(floodFillClusterSizes(n, openSites), labeling.clusterSizes());
+        }
+    }
+
+    @Test
+    void testRandomField() {
+        assertArrayEquals(HoshenKopelman.randomField(10, 0.5, 3L), HoshenKopelman.randomField(10, 0.5, 3L));
+        assertFalse(Arrays.equals(HoshenKopelman.randomField(10, 0.5, 3L), HoshenKopelman.randomField(10, 0.5, 4L)));
+        boolean[] all = HoshenKopelman.randomField(10, 1, 3L);
+        boolean[] none = HoshenKopelman.randomField(10, 0, 3L);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(all[i]);
+            assertFalse(none[i]);
+        }
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new HoshenKopelman(0, new boolean[0], 1));
+        assertThrows(IllegalArgumentException.class, () -> new HoshenKopelman(3, new boolean[8], 1));
+        assertThrows(IllegalArgumentException.class, () -> new HoshenKopelman(3, null, 1));
+        assertThrows(IllegalArgumentException.class, () -> new HoshenKopelman(3, new boolean[9], 0));
+        assertThrows(IllegalArgumentException.class, () -> HoshenKopelman.randomField(3, 1.5, 1L));
+    }
+
+    private static boolean[] field(String... rows) {
+        boolean[] openSites = new boolean[rows.length * rows.length];
+        for (int row = 0; row < rows.length; row++) {
+            for (int col = 0; col < rows.length; col++) {
+                openSites[row * rows.length + col] = rows[row].charAt(col) == 'X';
+            }
+        }
+        return openSites;
+    }
+
+    private static int[] floodFillClusterSizes(int n, boolean[] openSites) {
+        boolean[] visited = new boolean[n * n];
+        int[] sizes = new int[n * n];
+        int count = 0;
+        Deque<Integer> stack = new ArrayDeque<>();
+        for (int start = 0; start < n * n; start++) {
+            if (!openSites[start] || visited[start]) {
+                continue;
+            }
+            int size = 0;
+            visited[start] = true;
+            stack.push(start);
+            while (!stack.isEmpty()) {
+                int i = stack.pop();
+                size++;
+                int row = i / n;
+                int col = i % n;
+                int[] neighbors = {
+                        col > 0 ? i - 1 : -1,
+                        col < n - 1 ? i + 1 : -1,
+                        row > 0 ? i - n : -1,
+                        row < n - 1 ? i + n : -1};
+                for (int neighbor : neighbors) {
+                    if (neighbor >= 0 && openSites[neighbor] && !visited[neighbor]) {
+                        visited[neighbor] = true;
+                        stack.push(neighbor);
+                    }
+                }
+            }
+            sizes[count++] = size;
+        }
+
+        sizes = Arrays.copyOf(sizes, count);
+        Arrays.sort(sizes);
+        int[] descending = new int[count];
+        for (int i = 0; i < count; i++) {
+            descending[i] = sizes[count - 1 - i];
+        }
+        return descending;
+    }
+}
@@ -0,0 +1,117 @@
+package com.pavelhudau.percolation;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestMain {
+    private static final List<String> JOBS = Arrays.asList(
+            "# n trials lattice [site|bond]",
+            "10 20 square",
+            "",
+            "8 20 triangular bond",
+            "4 10 cubic site");
+
+    @Test
+    void testCsv() throws ExecutionException, InterruptedException {
+        String[] lines = run(JOBS, Main.CSV, 2);
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].startsWith("job,n,lattice,mode,trials,mean"));
+        long jobSeed = TrialRandom.trialSeed(1L, 1);
+        String expectedMean = Double.toString(new PercolationStats(new SquareLattice(10), 20, jobSeed, 1).mean());
+        boolean foundSquare = false;
+        for (int i = 1; i < lines.length; i++) {
+            String[] columns = lines[i].split(",");
+            assertEquals(11, columns.length);
+            if ("1".equals(columns[0])) {
+                foundSquare = true;
+                assertEquals("square", columns[2]);
+                assertEquals("site", columns[3]);
+                assertEquals(expectedMean, columns[5]);
+            }
+            assertTrue(Double.parseDouble(columns[10]) > 0);
+        }
+        assertTrue(foundSquare);
+    }
+
+    @Test
+    void testJson() throws ExecutionException, InterruptedException {
+        String[] lines = run(JOBS, Main.JSON, 3);
+        assertEquals(3, lines.length);
+        for (String line : lines) {
+            assertTrue(line.startsWith("{\"job\":"));
+            assertTrue(line.endsWith("}"));
+            assertTrue(line.contains("\"openedPerSecond\":"));
+        }
+        assertTrue(String.join("\n", lines).contains("\"lattice\":\"triangular\",\"mode\":\"bond\""));
+    }
+
+    @Test
+    void testJsonWhenSingleTrialThenStddevIsNull() throws ExecutionException, InterruptedException {
+        String[] lines = run(Arrays.asList("5 1 honeycomb"), Main.JSON, 1);
+        assertTrue(lines[0].contains("\"stddev\":null"));
+    }
+
+    @Test
+    void testIdenticalJobsGetIndependentResults() throws ExecutionException, InterruptedException {
+        String[] lines = run(Arrays.asList("10 20 square", "10 20 square"), Main.CSV, 1);
+        String[] first = lines[1].split(",");
+        String[] second = lines[2].split(",");
+        assertNotEquals(first[5], second[5]);
+    }
+
+    @Test
+    void testThroughputCountsOpenedSitesAndBonds() {
+        Main.Job job = Main.parseJobs(Arrays.asList("6 10 square bond")).get(0);
+        PercolationStats stats = PercolationStats.bonds(new SquareLattice(6), 10, 1L, 1);
+        int bonds = new BondPercolation(new SquareLattice(6)).numberOfBonds();
+        // One second of wall time, so throughput is the number of opened bonds.
+        String[] columns = new Main.JobResult(job, stats, bonds, 1_000_000_000L).toCsv().split(",");
+        assertEquals(Math.round(stats.mean() * 10 * bonds), Long.parseLong(columns[10]));
+        assertTrue(Long.parseLong(columns[10]) < 10L * bonds);
+    }
+
+    @Test
+    void testInvalidJobs() {
+        assertThrows(IllegalArgumentException.class, () -> Main.parseJobs(Arrays.asList("10 20")));
+        assertThrows(IllegalArgumentException.class, () -> Main.parseJobs(Arrays.asList("10 x square")));
+        assertThrows(IllegalArgumentException.class, () -> Main.parseJobs(Arrays.asList("0 10 square")));
+        assertThrows(IllegalArgumentException.class, () -> Main.parseJobs(Arrays.asList("10 10 hexagon")));
+        assertThrows(IllegalArgumentException.class, () -> Main.parseJobs(Arrays.asList("10 10 square edge")));
+        assertThrows(IllegalArgumentException.class, () -> run(JOBS, "xml", 1));
+        assertThrows(IllegalArgumentException.class, () -> run(JOBS, Main.CSV, 0));
+    }
+
+    @Test
+    void testOptions() {
+        Main.Options options = Main.Options.parse(new String[]{"jobs.txt", "-threads", "3", "-format", "JSON", "-seed", "7"});
+        assertEquals("jobs.txt", options.jobsFile());
+        assertEquals(3, options.threads());
+        assertEquals(Main.JSON, options.format());
+        assertEquals(7L, options.seed());
+        assertEquals(Main.CSV, Main.Options.parse(new String[]{"jobs.txt"}).format());
+    }
+
+    @Test
+    void testInvalidOptions() {
+        assertThrows(IllegalArgumentException.class, () -> Main.Options.parse(new String[0]));
+        assertThrows(IllegalArgumentException.class, () -> Main.Options.parse(new String[]{"-threads", "2"}));
+        assertThrows(IllegalArgumentException.class, () -> Main.Options.parse(new String[]{"jobs.txt", "-threads"}));
+        assertThrows(IllegalArgumentException.class, () -> Main.Options.parse(new String[]{"jobs.txt", "-seed", "1", "-format"}));
+        assertThrows(IllegalArgumentException.class, () -> Main.Options.parse(new String[]{"jobs.txt", "-parallel", "2"}));
+        assertThrows(IllegalArgumentException.class, () -> Main.Options.parse(new String[]{"jobs.txt", "-threads", "x"}));
+    }
+
+    private static String[] run(List<String> jobs, String format, int threads) throws ExecutionException, InterruptedException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Main.run(jobs, format, threads, 1L, new PrintStream(bytes, true));
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8).trim().split("\\R");
+    }
+}
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.BitSet;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class TestPercolation {
@@ -208,4 +210,302 @@ public class TestPercolation {
         Percolation percolation = new Percolation(1);
         assertFalse(percolation.percolates());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testIsFullWhenPercolatesThenNoBackwash() {
+        Percolation percolation = new Percolation(3);
+        percolation.open(1, 1);
+        percolation.open(2, 1);
+        percolation.open(3, 1);
+        percolation.open(3, 3);
+        assertTrue(percolation.percolates());
+        // (3, 3) is connected to the virtual bottom only, which in turn is connected to the top.
+        assertFalse(percolation.isFull(3, 3));
+        assertTrue(percolation.isFull(3, 1));
+    }
+
+    @Test
+    void testIsFullWhenClustersMergeThenBecomesFull() {
+        Percolation percolation = new Percolation(4);
+        percolation.open(3, 2);
+        percolation.open(3, 3);
+        percolation.open(2, 3);
+        assertFalse(percolation.isFull(3, 2));
+        percolation.open(1, 3);
+        assertTrue(percolation.isFull(3, 2));
+        assertTrue(percolation.isFull(2, 3));
+    }
+
+    @Test
+    void testFullSites() {
+        int n = 4;
+        Percolation percolation = new Percolation(n);
+        percolation.open(1, 2);
+        percolation.open(2, 2);
+        percolation.open(3, 3);
+        percolation.open(4, 3);
+        percolation.open(4, 4);
+        BitSet fullSites = percolation.fullSites();
+        for (int row = 1; row <= n; row++) {
+            for (int col = 1; col <= n; col++) {
+                assertEquals(percolation.isFull(row, col), fullSites.get((row - 1) * n + (col - 1)));
+            }
+        }
+        assertEquals(2, fullSites.cardinality());
+    }
+
+    @Test
+    void testFullSitesWhenNoOpenSitesThenEmpty() {
+        Percolation percolation = new Percolation(5);
+        assertTrue(percolation.fullSites().isEmpty());
+    }
+
+    @Test
+    void testResetBlocksAllSites() {
+        Percolation percolation = new Percolation(3);
+        percolation.open(1, 2);
+        percolation.open(2, 2);
+        percolation.open(3, 2);
+        assertTrue(percolation.percolates());
+
+        percolation.reset();
+        assertFalse(percolation.percolates());
+        assertEquals(0, percolation.numberOfOpenSites());
+        assertFalse(percolation.isOpen(2, 2));
+        assertFalse(percolation.isFull(1, 2));
+
+        percolation.open(1, 1);
+        percolation.open(2, 1);
+        assertTrue(percolation.isFull(2, 1));
+        assertFalse(percolation.percolates());
+    }
+
+    @Test
+    void testOpenIdxMatchesOpen() {
+        int n = 4;
+        Percolation byRowCol = new Percolation(n);
+        Percolation byIdx = new Percolation(new SquareLattice(n), false);
+        int[][] rowsCols = {{1, 3}, {2, 3}, {2, 2}, {3, 2}, {4, 2}};
+        for (int[] rowCol : rowsCols) {
+            byRowCol.open(rowCol[0], rowCol[1]);
+            byIdx.openIdx(rowCol[1] + n * (rowCol[0] - 1));
+            assertEquals(byRowCol.percolates(), byIdx.percolates());
+            assertEquals(byRowCol.numberOfOpenSites(), byIdx.numberOfOpenSites());
+        }
+        assertTrue(byIdx.percolates());
+    }
+
+    @Test
+    void testIsFullWhenFullSitesAreNotTrackedThenExceptionIsThrown() {
+        Percolation percolation = new Percolation(new SquareLattice(3), false);
+        percolation.open(1, 1);
+        assertThrows(UnsupportedOperationException.class, () -> percolation.isFull(1, 1));
+    }
+
+    @Test
+    void testPercolatesWithCubicLattice() {
+        int n = 3;
+        Percolation percolation = new Percolation(new CubicLattice(n));
+        // Column along y at x = 1, z = 2.
+        for (int y = 0; y < n; y++) {
+            assertFalse(percolation.percolates());
+            percolation.openSite(1 + n * (y + n * 2));
+        }
+        assertTrue(percolation.percolates());
+        assertTrue(percolation.isFullSite(1 + n * (2 + n * 2)));
+        assertFalse(percolation.isOpenSite(0));
+        assertEquals(n, percolation.numberOfOpenSites());
+    }
+
+    @Test
+    void testPercolatesWithTriangularLatticeThroughDiagonal() {
+        Percolation percolation = new Percolation(new TriangularLattice(2));
+        percolation.open(1, 2);
+        percolation.open(2, 1);
+        assertTrue(percolation.percolates());
+
+        Percolation square = new Percolation(2);
+        square.open(1, 2);
+        square.open(2, 1);
+        assertFalse(square.percolates());
+    }
+
+    @Test
+    void testSitesMatchRowsAndCols() {
+        int n = 4;
+        Percolation percolation = new Percolation(new HoneycombLattice(n));
+        percolation.open(2, 3);
+        assertTrue(percolation.isOpenSite((2 - 1) * n + (3 - 1)));
+        percolation.openSite(n * n - 1);
+        assertTrue(percolation.isOpen(n, n));
+    }
+
+    @Test
+    void testRowColWhenLatticeIsNot2DThenExceptionIsThrown() {
+        Percolation percolation = new Percolation(new CubicLattice(2));
+        assertThrows(UnsupportedOperationException.class, () -> percolation.open(1, 1));
+    }
+
+    @Test
+    void testSiteWhenOutOfRangeThenExceptionIsThrown() {
+        Percolation percolation = new Percolation(new CubicLattice(2));
+        assertThrows(IllegalArgumentException.class, () -> percolation.openSite(8));
+        assertThrows(IllegalArgumentException.class, () -> percolation.isOpenSite(-1));
+    }
+
+    @Test
+    void testClusterStatistics() {
+        Percolation percolation = new Percolation(4);
+        assertEquals(0, percolation.clusterCount());
+        assertEquals(0, percolation.largestClusterSize());
+        assertArrayEquals(new int[]{0}, percolation.clusterSizeHistogram());
+
+        percolation.open(1, 1);
+        percolation.open(1, 3);
+        percolation.open(3, 3);
+        assertEquals(3, percolation.clusterCount());
+        assertEquals(1, percolation.largestClusterSize());
+        assertEquals(3, percolation.clustersOfSize(1));
+
+        // Joins (1, 3) and (3, 3) into a cluster of 3.
+        percolation.open(2, 3);
+        assertEquals(2, percolation.clusterCount());
+        assertEquals(3, percolation.largestClusterSize());
+        assertArrayEquals(new int[]{0, 1, 0, 1}, percolation.clusterSizeHistogram());
+
+        // Opening twice changes nothing.
+        percolation.open(2, 3);
+        assertEquals(2, percolation.clusterCount());
+
+        percolation.open(1, 2);
+        assertEquals(1, percolation.clusterCount());
+        assertEquals(5, percolation.largestClusterSize());
+        assertArrayEquals(new int[]{0, 0, 0, 0, 0, 1}, percolation.clusterSizeHistogram());
+        assertEquals(0, percolation.clustersOfSize(16));
+    }
+
+    @Test
+    void testClusterStatisticsMatchLabeling() {
+        int n = 30;
+        boolean[] openSites = new boolean[n * n];
+        Percolation percolation = new Percolation(n);
+        int[] permutation = new int[n * n];
+        TrialRandom random = new TrialRandom();
+        random.startTrial(5L, 0);
+        for (int i = 0; i < permutation.length; i++) {
+            int j = random.applyAsInt(i + 1);
+            permutation[i] = permutation[j];
+            permutation[j] = i;
+        }
+
+        for (int k = 0; k < permutation.length; k++) {
+            openSites[permutation[k]] = true;
+            percolation.openSite(permutation[k]);
+            if (k % 97 == 0) {
+                HoshenKopelman labeling = new HoshenKopelman(n, openSites, 1);
+                assertEquals(labeling.clusterCount(), percolation.clusterCount());
+                assertEquals(labeling.largestClusterSize(), percolation.largestClusterSize());
+                int[] histogram = percolation.clusterSizeHistogram();
+                for (int size : labeling.clusterSizes()) {
+                    histogram[size]--;
+                }
+                assertArrayEquals(new int[histogram.length], histogram);
+            }
+        }
+    }
+
+    @Test
+    void testClusterStatisticsAfterReset() {
+        Percolation percolation = new Percolation(3);
+        percolation.open(1, 1);
+        percolation.open(1, 2);
+        percolation.reset();
+        assertEquals(0, percolation.clusterCount());
+        assertEquals(0, percolation.largestClusterSize());
+        assertEquals(0, percolation.clustersOfSize(2));
+        percolation.open(3, 3);
+        assertEquals(1, percolation.clustersOfSize(1));
+    }
+
+    @Test
+    void testClusterStatisticsWhenNotTrackedThenExceptionIsThrown() {
+        Percolation percolation = new Percolation(new SquareLattice(3), false);
+        assertThrows(UnsupportedOperationException.class, percolation::clusterCount);
+        assertThrows(UnsupportedOperationException.class, percolation::largestClusterSize);
+        assertThrows(UnsupportedOperationException.class, percolation::clusterSizeHistogram);
+        assertThrows(IllegalArgumentException.class, () -> new Percolation(3).clustersOfSize(0));
+    }
+
+    @Test
+    void testRollbackClosesSitesOpenedSinceCheckpoint() {
+        Percolation percolation = Percolation.undoable(3);
+        percolation.open(1, 2);
+        percolation.open(2, 2);
+        percolation.checkpoint();
+        percolation.open(3, 2);
+        percolation.open(3, 3);
+        assertTrue(percolation.percolates());
+        assertTrue(percolation.isFull(3, 3));
+
+        percolation.rollback();
+        assertFalse(percolation.percolates());
+        assertFalse(percolation.isOpen(3, 2));
+        assertFalse(percolation.isOpen(3, 3));
+        assertTrue(percolation.isFull(2, 2));
+        assertEquals(2, percolation.numberOfOpenSites());
+        assertEquals(1, percolation.clusterCount());
+        assertEquals(2, percolation.largestClusterSize());
+
+        percolation.open(3, 3);
+        assertFalse(percolation.isFull(3, 3));
+        assertFalse(percolation.percolates());
+    }
+
+    @Test
+    void testRollbackOfNestedCheckpointsMatchesFreshPercolation() {
+        int n = 12;
+        Percolation percolation = Percolation.undoable(n);
+        TrialRandom random = new TrialRandom();
+        random.startTrial(11L, 0);
+        int[] opened = new int[3 * n * n];
+        int[] openedAtCheckpoint = new int[4];
+        int openedCnt = 0;
+        for (int level = 0; level < openedAtCheckpoint.length; level++) {
+            openedAtCheckpoint[level] = openedCnt;
+            percolation.checkpoint();
+            for (int k = 0; k < n * n / 3; k++) {
+                opened[openedCnt] = random.applyAsInt(n * n);
+                percolation.openSite(opened[openedCnt++]);
+            }
+        }
+
+        for (int level = openedAtCheckpoint.length - 1; level >= 0; level--) {
+            percolation.rollback();
+            Percolation expected = new Percolation(n);
+            for (int k = 0; k < openedAtCheckpoint[level]; k++) {
+                expected.openSite(opened[k]);
+            }
+            assertEquals(expected.percolates(), percolation.percolates());
+            assertEquals(expected.numberOfOpenSites(), percolation.numberOfOpenSites());
+            assertEquals(expected.fullSites(), percolation.fullSites());
+            assertEquals(expected.clusterCount(), percolation.clusterCount());
+            assertEquals(expected.largestClusterSize(), percolation.largestClusterSize());
+            assertArrayEquals(expected.clusterSizeHistogram(), percolation.clusterSizeHistogram());
+            for (int site = 0; site < n * n; site++) {
+                assertEquals(expected.isOpenSite(site), percolation.isOpenSite(site));
+            }
+        }
+        assertEquals(0, percolation.numberOfOpenSites());
+    }
+
+    @Test
+    void testRollbackWhenNoCheckpointThenExceptionIsThrown() {
+        assertThrows(IllegalStateException.class, () -> Percolation.undoable(3).rollback());
+    }
+
+    @Test
+    void testCheckpointWhenNotUndoableThenExceptionIsThrown() {
+        assertThrows(UnsupportedOperationException.class, () -> new Percolation(3).checkpoint());
+        assertThrows(UnsupportedOperationException.class, () -> new Percolation(3).rollback());
+    }
+}
@@ -0,0 +1,84 @@
+package com.pavelhudau.percolation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestPercolationCurve {
+    @Test
+    void testWhenNoSitesOpenThenDoesNotPercolate() {
+        PercolationCurve curve = new PercolationCurve(10, 5, 1L);
+        assertEquals(0, curve.percolationProbability(0));
+        assertEquals(0, curve.largestClusterSize(0));
+        assertEquals(0, curve.meanClusterSize(0));
+    }
+
+    @Test
+    void testWhenAllSitesOpenThenSingleClusterPercolates() {
+        int n = 10;
+        PercolationCurve curve = new PercolationCurve(n, 5, 1L);
+        assertEquals(n * n, curve.sites());
+        assertEquals(1, curve.percolationProbability(n * n));
+        assertEquals(n * n, curve.largestClusterSize(n * n));
+        assertEquals(n * n, curve.meanClusterSize(n * n));
+    }
+
+    @Test
+    void testWhenOneSiteOpenThenClusterSizeIsOne() {
+        PercolationCurve curve = new PercolationCurve(10, 5, 1L);
+        assertEquals(1, curve.largestClusterSize(1));
+        assertEquals(1, curve.meanClusterSize(1));
+    }
+
+    @Test
+    void testWith1by1() {
+        PercolationCurve curve = new PercolationCurve(1, 3, 1L);
+        assertEquals(0, curve.percolationProbability(0));
+        assertEquals(1, curve.percolationProbability(1));
+    }
+
+    @Test
+    void testPercolationProbabilityDoesNotDecrease() {
+        PercolationCurve curve = new PercolationCurve(20, 20, 3L);
+        for (int k = 1; k <= curve.sites(); k++) {
+            assertTrue(curve.percolationProbability(k - 1) <= curve.percolationProbability(k));
+            assertTrue(curve.largestClusterSize(k - 1) <= curve.largestClusterSize(k));
+        }
+    }
+
+    @Test
+    void testPercolationProbabilityAt() {
+        PercolationCurve curve = new PercolationCurve(30, 50, 5L);
+        assertEquals(0, curve.percolationProbabilityAt(0));
+        assertEquals(1, curve.percolationProbabilityAt(1));
+        assertTrue(curve.percolationProbabilityAt(0.3) < 0.01);
+        assertTrue(curve.percolationProbabilityAt(0.9) > 0.99);
+        double atThreshold = curve.percolationProbabilityAt(0.593);
+        assertTrue(atThreshold > 0.2 && atThreshold < 0.8);
+        assertTrue(curve.largestClusterSizeAt(0.3) < curve.largestClusterSizeAt(0.7));
+        assertTrue(curve.meanClusterSizeAt(0.3) < curve.meanClusterSizeAt(0.7));
+    }
+
+    @Test
+    void testSameSeedGivesSameCurve() {
+        PercolationCurve first = new PercolationCurve(8, 10, 11L);
+        PercolationCurve second = new PercolationCurve(8, 10, 11L);
+        for (int k = 0; k <= first.sites(); k++) {
+            assertEquals(first.percolationProbability(k), second.percolationProbability(k));
+            assertEquals(first.meanClusterSize(k), second.meanClusterSize(k));
+        }
+    }
+
+    @Test
+    void testWhenOpenSitesOutOfRangeThenExceptionIsThrown() {
+        PercolationCurve curve = new PercolationCurve(3, 1, 1L);
+        assertThrows(IllegalArgumentException.class, () -> curve.percolationProbability(10));
+        assertThrows(IllegalArgumentException.class, () -> curve.largestClusterSize(-1));
+        assertThrows(IllegalArgumentException.class, () -> curve.percolationProbabilityAt(1.5));
+    }
+
+    @Test
+    void testWhenTrialsIsNotPositiveThenExceptionIsThrown() {
+        assertThrows(IllegalArgumentException.class, () -> new PercolationCurve(3, 0, 1L));
+    }
+}
@@ -1,6 +1,17 @@
 package com.pavelhudau.percolation;
 
+import com.pavelhudau.random.RandomSource;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -24,4 +35,280 @@ public class TestPercolationStats {
         assertTrue(percolationStats.confidenceLo() > 0);
         assertTrue(percolationStats.confidenceLo() < percolationStats.confidenceHi());
     }
+
+    @Test
+    void testParallel() {
+        PercolationStats percolationStats = new PercolationStats(20, 100, 42L, 4);
+        assertTrue(percolationStats.mean() > 0.5);
+        assertTrue(percolationStats.mean() < 0.7);
+        assertTrue(percolationStats.stddev() > 0);
+        assertTrue(percolationStats.confidenceLo() < percolationStats.confidenceHi());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 3, 8})
+    void testParallelWhenSameSeedThenResultDoesNotDependOnParallelism(int parallelism) {
+        PercolationStats sequential = new PercolationStats(10, 50, 7L, 1);
+        PercolationStats parallel = new PercolationStats(10, 50, 7L, parallelism);
+        assertEquals(sequential.mean(), parallel.mean());
+        assertEquals(sequential.stddev(), parallel.stddev());
+        assertEquals(sequential.confidenceLo(), parallel.confidenceLo());
+        assertEquals(sequential.confidenceHi(), parallel.confidenceHi());
+    }
+
+    @Test
+    void testParallelWhenDifferentSeedsThenResultsDiffer() {
+        PercolationStats first = new PercolationStats(10, 50, 1L, 2);
+        PercolationStats second = new PercolationStats(10, 50, 2L, 2);
+        assertNotEquals(first.mean(), second.mean());
+    }
+
+    @Test
+    void testParallelWhenParallelismIsNotPositiveThenExceptionIsThrown() {
+        assertThrows(IllegalArgumentException.class, () -> new PercolationStats(10, 10, 1L, 0));
+    }
+
+    @Test
+    void testParallelWhenSingleWorkerThenRunsOnCallingThread() {
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        Lattice lattice = new SquareLattice(8) {
+            @Override
+            public int neighbors(int site, int[] neighbors) {
+                threads.add(Thread.currentThread());
+                return super.neighbors(site, neighbors);
+            }
+        };
+        new PercolationStats(lattice, 20, 1L, 1);
+        PercolationStats.bonds(lattice, 20, 1L, 1);
+        assertEquals(1, threads.size());
+        assertTrue(threads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    void testTrials() {
+        assertEquals(10, new PercolationStats(5, 10).trials());
+        assertEquals(10, new PercolationStats(5, 10, 1L, 2).trials());
+    }
+
+    @Test
+    void testUntilConfidenceWidthWhenTargetIsWideThenStopsEarly() {
+        PercolationStats percolationStats = PercolationStats.untilConfidenceWidth(10, 0.05, 10000, 3L, 2);
+        assertTrue(percolationStats.trials() < 10000);
+        assertTrue(percolationStats.confidenceHi() - percolationStats.confidenceLo() < 0.05);
+        assertTrue(percolationStats.mean() > 0.5);
+    }
+
+    @Test
+    void testUntilConfidenceWidthWhenTargetIsUnreachableThenRunsMaxTrials() {
+        PercolationStats percolationStats = PercolationStats.untilConfidenceWidth(10, 1e-9, 50, 3L, 2);
+        assertEquals(50, percolationStats.trials());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 5})
+    void testUntilConfidenceWidthWhenSameSeedThenStopsAtSameTrialForAnyParallelism(int parallelism) {
+        PercolationStats sequential = PercolationStats.untilConfidenceWidth(8, 0.02, 5000, 9L, 1);
+        PercolationStats parallel = PercolationStats.untilConfidenceWidth(8, 0.02, 5000, 9L, parallelism);
+        assertEquals(sequential.trials(), parallel.trials());
+        assertEquals(sequential.mean(), parallel.mean());
+        assertEquals(sequential.stddev(), parallel.stddev());
+    }
+
+    @Test
+    void testUntilConfidenceWidthWhenTargetIsNotPositiveThenExceptionIsThrown() {
+        assertThrows(IllegalArgumentException.class, () -> PercolationStats.untilConfidenceWidth(10, 0, 10, 1L, 1));
+        assertThrows(IllegalArgumentException.class, () -> PercolationStats.untilConfidenceWidth(10, 0.1, 0, 1L, 1));
+    }
+
+    @Test
+    void testLatticeThresholds() {
+        assertEquals(0.5, new PercolationStats(new TriangularLattice(40), 200, 1L, 4).mean(), 0.03);
+        assertEquals(0.697, new PercolationStats(new HoneycombLattice(40), 200, 1L, 4).mean(), 0.03);
+        assertEquals(0.3116, new PercolationStats(new CubicLattice(15), 200, 1L, 4).mean(), 0.04);
+    }
+
+    @Test
+    void testUntilConfidenceWidthWithLattice() {
+        PercolationStats percolationStats = PercolationStats.untilConfidenceWidth(new TriangularLattice(10), 0.05, 10000, 3L, 2);
+        assertTrue(percolationStats.trials() < 10000);
+        assertTrue(percolationStats.confidenceHi() - percolationStats.confidenceLo() < 0.05);
+    }
+
+    @Test
+    void testBondThresholds() {
+        assertEquals(0.5, PercolationStats.bonds(new SquareLattice(40), 200, 1L, 4).mean(), 0.03);
+        assertEquals(0.3473, PercolationStats.bonds(new TriangularLattice(40), 200, 1L, 4).mean(), 0.03);
+        assertEquals(0.6527, PercolationStats.bonds(new HoneycombLattice(40), 200, 1L, 4).mean(), 0.03);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 3})
+    void testBondsWhenSameSeedThenResultDoesNotDependOnParallelism(int parallelism) {
+        PercolationStats sequential = PercolationStats.bonds(new SquareLattice(10), 50, 7L, 1);
+        PercolationStats parallel = PercolationStats.bonds(new SquareLattice(10), 50, 7L, parallelism);
+        assertEquals(sequential.mean(), parallel.mean());
+        assertEquals(sequential.stddev(), parallel.stddev());
+    }
+
+    @Test
+    void testBondsUntilConfidenceWidth() {
+        PercolationStats percolationStats = PercolationStats.bondsUntilConfidenceWidth(new SquareLattice(10), 0.05, 10000, 3L, 2);
+        assertTrue(percolationStats.trials() < 10000);
+        assertTrue(percolationStats.confidenceHi() - percolationStats.confidenceLo() < 0.05);
+    }
+
+    @Test
+    void testBondsWhenLatticeIsNullThenExceptionIsThrown() {
+        assertThrows(IllegalArgumentException.class, () -> PercolationStats.bonds(null, 10, 1L, 1));
+    }
+
+    @Test
+    void testCheckpointedSavesFinalState(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("sweep.bin");
+        PercolationStats percolationStats = PercolationStats.checkpointed(10, 100, 5L, 2, file);
+        PercolationStats expected = new PercolationStats(10, 100, 5L, 2);
+        assertEquals(expected.mean(), percolationStats.mean());
+        assertEquals(expected.stddev(), percolationStats.stddev());
+
+        SweepCheckpoint checkpoint = SweepCheckpoint.read(file);
+        assertEquals(100, checkpoint.count);
+        assertEquals("square", checkpoint.lattice);
+        assertEquals(10, checkpoint.n);
+        assertEquals(5L, checkpoint.seed);
+        assertEquals(expected.mean(), checkpoint.mean);
+
+        // Resuming a completed sweep runs no more trials.
+        PercolationStats resumed = PercolationStats.resume(file, 1);
+        assertEquals(100, resumed.trials());
+        assertEquals(expected.mean(), resumed.mean());
+    }
+
+    @Test
+    void testResumeGivesSameResultAsUninterruptedSweep(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("sweep.bin");
+        // Sweep of 2500 trials that was stopped after the first two batches.
+        PercolationStats firstBatches = new PercolationStats(8, 2048, 13L, 2);
+        PercolationStats.runCheckpointed(new SweepCheckpoint("square", 8, false, 2048, 0, 13L, new RunningStats()), 2, file, 0);
+        SweepCheckpoint stopped = SweepCheckpoint.read(file);
+        assertEquals(firstBatches.mean(), stopped.mean);
+        new SweepCheckpoint("square", 8, false, 2500, 0, 13L, stopped.stats()).write(file);
+
+        PercolationStats resumed = PercolationStats.resume(file, 3);
+        PercolationStats uninterrupted = new PercolationStats(8, 2500, 13L, 1);
+        assertEquals(2500, resumed.trials());
+        assertEquals(uninterrupted.mean(), resumed.mean());
+        assertEquals(uninterrupted.stddev(), resumed.stddev());
+        assertEquals(2500, SweepCheckpoint.read(file).count);
+    }
+
+    @Test
+    void testBondsCheckpointedResumesOnTriangularLattice(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("sweep.bin");
+        Lattice lattice = new TriangularLattice(6);
+        // Bond sweep of 1500 trials that was stopped after the first batch.
+        PercolationStats.bondsCheckpointed(lattice, 1024, 3L, 2, file);
+        SweepCheckpoint stopped = SweepCheckpoint.read(file);
+        assertEquals("triangular", stopped.lattice);
+        assertEquals(6, stopped.n);
+        assertTrue(stopped.bonds);
+        new SweepCheckpoint(stopped.lattice, stopped.n, true, 1500, 0, 3L, stopped.stats()).write(file);
+
+        PercolationStats resumed = PercolationStats.resume(file, 3);
+        PercolationStats uninterrupted = PercolationStats.bonds(new TriangularLattice(6), 1500, 3L, 1);
+        assertEquals(1500, resumed.trials());
+        assertEquals(uninterrupted.mean(), resumed.mean());
+        assertEquals(uninterrupted.stddev(), resumed.stddev());
+    }
+
+    @Test
+    void testUntilConfidenceWidthCheckpointedResumesOnHoneycombLattice(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("sweep.bin");
+        PercolationStats uninterrupted = PercolationStats.untilConfidenceWidth(new HoneycombLattice(6), 0.008, 100_000, 9L, 1);
+        assertTrue(uninterrupted.trials() > 1024);
+
+        PercolationStats checkpointed = PercolationStats.untilConfidenceWidthCheckpointed(
+                new HoneycombLattice(6), 0.008, 100_000, 9L, 2, file);
+        assertEquals(uninterrupted.trials(), checkpointed.trials());
+        assertEquals(uninterrupted.mean(), checkpointed.mean());
+        SweepCheckpoint done = SweepCheckpoint.read(file);
+        assertEquals("honeycomb", done.lattice);
+        assertFalse(done.bonds);
+        assertEquals(100_000, done.maxTrials);
+        assertEquals(0.008, done.targetWidth);
+
+        // The same sweep stopped after the first batch.
+        PercolationStats.runCheckpointed(new SweepCheckpoint("honeycomb", 6, false, 1024, 0, 9L, new RunningStats()), 2, file, 0);
+        SweepCheckpoint stopped = SweepCheckpoint.read(file);
+        new SweepCheckpoint("honeycomb", 6, false, 100_000, 0.008, 9L, stopped.stats()).write(file);
+
+        PercolationStats resumed = PercolationStats.resume(file, 3);
+        assertEquals(uninterrupted.trials(), resumed.trials());
+        assertEquals(uninterrupted.mean(), resumed.mean());
+        assertEquals(uninterrupted.stddev(), resumed.stddev());
+    }
+
+    @Test
+    void testBondsUntilConfidenceWidthCheckpointedOnCubicLattice(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("sweep.bin");
+        PercolationStats checkpointed = PercolationStats.bondsUntilConfidenceWidthCheckpointed(
+                new CubicLattice(4), 0.02, 5000, 21L, 2, file);
+        PercolationStats expected = PercolationStats.bondsUntilConfidenceWidth(new CubicLattice(4), 0.02, 5000, 21L, 1);
+        assertEquals(expected.trials(), checkpointed.trials());
+        assertEquals(expected.mean(), checkpointed.mean());
+
+        SweepCheckpoint checkpoint = SweepCheckpoint.read(file);
+        assertEquals("cubic", checkpoint.lattice);
+        assertEquals(4, checkpoint.n);
+        assertTrue(checkpoint.bonds);
+        assertEquals(0.02, checkpoint.targetWidth);
+        PercolationStats resumed = PercolationStats.resume(file, 1);
+        assertEquals(expected.trials(), resumed.trials());
+        assertEquals(expected.mean(), resumed.mean());
+    }
+
+    @Test
+    void testCheckpointedWhenLatticeCanNotBeSavedThenExceptionIsThrown(@TempDir Path dir) {
+        Path file = dir.resolve("sweep.bin");
+        Lattice custom = new SquareLattice(5) {
+        };
+        assertThrows(IllegalArgumentException.class, () -> PercolationStats.checkpointed(custom, 10, 1L, 1, file));
+        assertThrows(IllegalArgumentException.class, () -> PercolationStats.bondsCheckpointed(null, 10, 1L, 1, file));
+        assertThrows(IllegalArgumentException.class,
+                () -> PercolationStats.untilConfidenceWidthCheckpointed(new SquareLattice(5), 0, 10, 1L, 1, file));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void testResumeWhenFileIsNotCheckpointThenExceptionIsThrown(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("sweep.bin");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IOException.class, () -> PercolationStats.resume(file, 1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3})
+    void testTrialIsBuiltOncePerWorkerNotPerBatch(int parallelism) {
+        AtomicInteger built = new AtomicInteger();
+        // Ten batches of trials, a trial per task would build 4 * parallelism trials per batch.
+        RunningStats stats = PercolationStats.runTrials(() -> {
+            built.incrementAndGet();
+            return uniform -> uniform.applyAsInt(1000) / 1000.0;
+        }, 10 * 1024, 0, 7L, parallelism);
+        assertEquals(10 * 1024, stats.count());
+        if (parallelism == 1) {
+            assertEquals(1, built.get());
+        } else {
+            assertTrue(built.get() < 10, "built " + built.get() + " trials");
+        }
+    }
+
+    @Test
+    void testSequentialWithSeededRandomSourceIsReproducible() {
+        PercolationStats first = new PercolationStats(10, 50, RandomSource.splittable(4L));
+        PercolationStats second = new PercolationStats(10, 50, RandomSource.splittable(4L));
+        assertEquals(first.mean(), second.mean());
+        assertEquals(first.stddev(), second.stddev());
+        assertTrue(new PercolationStats(10, 50, RandomSource.threadLocal()).mean() > 0.4);
+        assertThrows(IllegalArgumentException.class, () -> new PercolationStats(10, 50, (RandomSource) null));
+    }
 }
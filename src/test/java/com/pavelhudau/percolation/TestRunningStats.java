@@ -0,0 +1,58 @@
+package com.pavelhudau.percolation;
+
+import edu.princeton.cs.algs4.StdStats;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestRunningStats {
+    @Test
+    void testMatchesStdStats() {
+        double[] values = {0.59, 0.61, 0.57, 0.6, 0.62, 0.58, 0.593};
+        RunningStats stats = new RunningStats();
+        for (double value : values) {
+            stats.add(value);
+        }
+
+        assertEquals(values.length, stats.count());
+        assertEquals(StdStats.mean(values), stats.mean(), 1e-12);
+        assertEquals(StdStats.stddev(values), stats.stddev(), 1e-12);
+    }
+
+    @Test
+    void testWhenEmptyThenMeanIsNaN() {
+        assertTrue(Double.isNaN(new RunningStats().mean()));
+    }
+
+    @Test
+    void testWhenEmptyThenStddevIsNaN() {
+        assertTrue(Double.isNaN(new RunningStats().stddev()));
+    }
+
+    @Test
+    void testWhenSingleValueThenStddevIsNaN() {
+        RunningStats stats = new RunningStats();
+        stats.add(1);
+        assertEquals(1, stats.mean());
+        assertTrue(Double.isNaN(stats.stddev()));
+    }
+
+    @Test
+    void testRestoredStatsContinueWhereSavedStopped() {
+        RunningStats all = new RunningStats();
+        RunningStats first = new RunningStats();
+        for (int i = 0; i < 10; i++) {
+            all.add(i * 0.1);
+            first.add(i * 0.1);
+        }
+        RunningStats restored = new RunningStats(first.count(), first.mean(), first.squaredDiffsSum());
+        for (int i = 10; i < 20; i++) {
+            all.add(i * 0.1);
+            restored.add(i * 0.1);
+        }
+
+        assertEquals(all.count(), restored.count());
+        assertEquals(all.mean(), restored.mean());
+        assertEquals(all.stddev(), restored.stddev());
+    }
+}
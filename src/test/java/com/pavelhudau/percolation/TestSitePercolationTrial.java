@@ -0,0 +1,35 @@
+package com.pavelhudau.percolation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSitePercolationTrial {
+    @Test
+    void testShuffleCanKeepSitesInPlace() {
+        // Always picking the largest position keeps every site in place, so sites open row by row
+        // and the 3-by-3 system percolates when the first site of the last row opens.
+        SitePercolationTrial trial = new SitePercolationTrial(new SquareLattice(3));
+        assertEquals(7.0 / 9, trial.run(bound -> bound - 1), 1e-12);
+    }
+
+    @Test
+    void testFirstTwoSitesAreAUniformPair() {
+        SitePercolationTrial trial = new SitePercolationTrial(new SquareLattice(2));
+        TrialRandom random = new TrialRandom();
+        double[] thresholds = new double[2000];
+        for (int i = 0; i < thresholds.length; i++) {
+            random.startTrial(1L, i);
+            thresholds[i] = trial.run(random);
+        }
+
+        // In a 2-by-2 system opening 2 sites percolates iff they are a column, i.e. with probability 1/3.
+        int percolatedAtTwo = 0;
+        for (double threshold : thresholds) {
+            if (threshold == 0.5) {
+                percolatedAtTwo++;
+            }
+        }
+        assertEquals(thresholds.length / 3.0, percolatedAtTwo, thresholds.length * 0.05);
+    }
+}
@@ -0,0 +1,39 @@
+package com.pavelhudau.percolation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTrialRandom {
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 7, 64, 1000003})
+    void testApplyAsIntIsWithinBound(int bound) {
+        TrialRandom random = new TrialRandom();
+        random.startTrial(1L, 0);
+        for (int i = 0; i < 1000; i++) {
+            int value = random.applyAsInt(bound);
+            assertTrue(value >= 0 && value < bound);
+        }
+    }
+
+    @Test
+    void testSameTrialGivesSameStream() {
+        TrialRandom first = new TrialRandom();
+        TrialRandom second = new TrialRandom();
+        first.startTrial(5L, 3);
+        second.startTrial(5L, 2);
+        second.applyAsInt(10);
+        second.startTrial(5L, 3);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(first.applyAsInt(100), second.applyAsInt(100));
+        }
+    }
+
+    @Test
+    void testDifferentTrialsGiveDifferentSeeds() {
+        assertNotEquals(TrialRandom.trialSeed(5L, 0), TrialRandom.trialSeed(5L, 1));
+        assertNotEquals(TrialRandom.trialSeed(5L, 0), TrialRandom.trialSeed(6L, 0));
+    }
+}
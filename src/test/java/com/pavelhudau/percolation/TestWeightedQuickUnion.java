@@ -0,0 +1,96 @@
+package com.pavelhudau.percolation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestWeightedQuickUnion {
+    @Test
+    void testEveryElementIsItsOwnRoot() {
+        WeightedQuickUnion uf = new WeightedQuickUnion(5);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, uf.root(i));
+            assertEquals(1, uf.size(i));
+        }
+    }
+
+    @Test
+    void testUnionReturnsRootOfMergedTree() {
+        WeightedQuickUnion uf = new WeightedQuickUnion(5);
+        int root = uf.union(0, 1);
+        assertEquals(root, uf.root(0));
+        assertEquals(root, uf.root(1));
+        assertEquals(2, uf.size(root));
+
+        root = uf.union(2, 1);
+        assertEquals(root, uf.root(2));
+        assertEquals(3, uf.size(root));
+    }
+
+    @Test
+    void testUnionWhenAlreadyConnectedThenSizeDoesNotChange() {
+        WeightedQuickUnion uf = new WeightedQuickUnion(3);
+        uf.union(0, 1);
+        int root = uf.union(1, 0);
+        assertEquals(2, uf.size(root));
+    }
+
+    @Test
+    void testSizeWhenNotARootThenExceptionIsThrown() {
+        WeightedQuickUnion uf = new WeightedQuickUnion(3);
+        int root = uf.union(0, 1);
+        int notRoot = root == 0 ? 1 : 0;
+        assertThrows(IllegalStateException.class, () -> uf.size(notRoot));
+    }
+
+    @Test
+    void testRootWhenOutOfRangeThenExceptionIsThrown() {
+        WeightedQuickUnion uf = new WeightedQuickUnion(3);
+        assertThrows(IllegalArgumentException.class, () -> uf.root(3));
+        assertThrows(IllegalArgumentException.class, () -> uf.root(-1));
+    }
+
+    @Test
+    void testUndoRestoresTrees() {
+        WeightedQuickUnion uf = new WeightedQuickUnion(6, true);
+        uf.union(0, 1);
+        int unions = uf.unions();
+        uf.union(2, 3);
+        uf.union(1, 3);
+        uf.union(1, 3);
+        assertEquals(3, uf.unions());
+        assertEquals(4, uf.size(uf.root(0)));
+
+        uf.undo(unions);
+        assertEquals(1, uf.unions());
+        assertEquals(uf.root(0), uf.root(1));
+        assertEquals(2, uf.size(uf.root(0)));
+        assertEquals(2, uf.root(2));
+        assertEquals(3, uf.root(3));
+        assertEquals(1, uf.size(2));
+        assertEquals(1, uf.size(3));
+    }
+
+    @Test
+    void testUndoLastUnion() {
+        WeightedQuickUnion uf = new WeightedQuickUnion(4, true);
+        uf.union(0, 1);
+        int root = uf.union(2, 1);
+        int child = uf.lastAttachedRoot();
+        assertEquals(2, child);
+        assertEquals(root, uf.parent(child));
+        assertEquals(child, uf.undoLastUnion());
+        assertEquals(2, uf.root(2));
+        assertEquals(2, uf.size(root));
+    }
+
+    @Test
+    void testUndoWhenNotUndoableThenExceptionIsThrown() {
+        WeightedQuickUnion uf = new WeightedQuickUnion(4);
+        assertThrows(UnsupportedOperationException.class, uf::unions);
+        assertThrows(UnsupportedOperationException.class, () -> uf.undo(0));
+        WeightedQuickUnion undoable = new WeightedQuickUnion(4, true);
+        assertThrows(IllegalStateException.class, undoable::undoLastUnion);
+        assertThrows(IllegalArgumentException.class, () -> undoable.undo(1));
+    }
+}
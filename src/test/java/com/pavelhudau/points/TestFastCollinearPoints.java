@@ -4,6 +4,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class TestFastCollinearPoints {
@@ -111,4 +113,101 @@ public class TestFastCollinearPoints {
         assertEquals(0, alg.segments().length);
         assertEquals(0, alg.numberOfSegments());
     }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 3, 8})
+    void testParallelSegmentsAreSameAsSerial(int parallelism) {
+        // A small grid has a lot of collinear points, including segments of more than 4 points.
+        Random random = new Random(parallelism);
+        boolean[] taken = new boolean[20 * 20];
+        Point[] points = new Point[150];
+        for (int i = 0; i < points.length; i++) {
+            int cell;
+            do {
+                cell = random.nextInt(taken.length);
+            } while (taken[cell]);
+            taken[cell] = true;
+            points[i] = new Point(cell % 20, cell / 20);
+        }
+
+        LineSegment[] parallel = new FastCollinearPoints(points.clone(), parallelism).segments();
+        LineSegment[] serial = new FastCollinearPoints(points.clone()).segments();
+        assertTrue(serial.length > 0);
+        assertEquals(serial.length, parallel.length);
+        for (int i = 0; i < serial.length; i++) {
+            assertEquals(serial[i].toString(), parallel[i].toString());
+        }
+    }
+
+    @Test
+    void testParallelWhenDuplicatePointsThenThrowsException() {
+        Point[] points = new Point[]{
+                new Point(5, 6),
+                new Point(6, 6),
+                new Point(7, 6),
+                new Point(1, 4),
+                new Point(5, 5),
+                new Point(8, 6),
+                new Point(5, 10),
+                new Point(5, 6)
+        };
+        assertThrows(IllegalArgumentException.class, () -> new FastCollinearPoints(points, 4));
+    }
+
+    @Test
+    void testWhenInvalidParallelismThenThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new FastCollinearPoints(new Point[0], 0));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3})
+    void testExactSlopesSegmentsAreSameAsSorting(int parallelism) {
+        Random random = new Random(parallelism);
+        boolean[] taken = new boolean[25 * 25];
+        Point[] points = new Point[200];
+        for (int i = 0; i < points.length; i++) {
+            int cell;
+            do {
+                cell = random.nextInt(taken.length);
+            } while (taken[cell]);
+            taken[cell] = true;
+            points[i] = new Point(cell % 25, cell / 25);
+        }
+
+        LineSegment[] exact = new FastCollinearPoints(points.clone(), parallelism, true).segments();
+        LineSegment[] sorted = new FastCollinearPoints(points.clone()).segments();
+        assertTrue(sorted.length > 0);
+        assertEquals(sorted.length, exact.length);
+        for (int i = 0; i < sorted.length; i++) {
+            assertEquals(sorted[i].toString(), exact[i].toString());
+        }
+    }
+
+    @Test
+    void testExactSlopesWhenVerticalAndHorizontalSegments() {
+        Point[] points = new Point[]{
+                new Point(5, 6),
+                new Point(6, 6),
+                new Point(7, 6),
+                new Point(5, 4),
+                new Point(5, 5),
+                new Point(8, 6),
+                new Point(5, 10)
+        };
+        LineSegment[] segments = new FastCollinearPoints(points, 1, true).segments();
+        assertEquals(2, segments.length);
+        assertEquals("(5, 4) -> (5, 10)", segments[0].toString());
+        assertEquals("(5, 6) -> (8, 6)", segments[1].toString());
+    }
+
+    @Test
+    void testExactSlopesWhenDuplicatePointsThenThrowsException() {
+        Point[] points = new Point[]{
+                new Point(5, 6),
+                new Point(6, 6),
+                new Point(7, 6),
+                new Point(5, 6)
+        };
+        assertThrows(IllegalArgumentException.class, () -> new FastCollinearPoints(points, 1, true));
+    }
 }
@@ -0,0 +1,39 @@
+package com.pavelhudau.points;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLongIntHashMap {
+    @Test
+    void testPutIfAbsent() {
+        LongIntHashMap map = new LongIntHashMap(100);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(-1, map.putIfAbsent(((long) i << 32) | 7, i));
+        }
+        assertEquals(100, map.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, map.putIfAbsent(((long) i << 32) | 7, -5));
+        }
+        assertEquals(100, map.size());
+    }
+
+    @Test
+    void testClear() {
+        LongIntHashMap map = new LongIntHashMap(2);
+        map.putIfAbsent(1, 10);
+        map.putIfAbsent(2, 20);
+        map.clear();
+        assertEquals(0, map.size());
+        assertEquals(-1, map.putIfAbsent(2, 30));
+        assertEquals(30, map.putIfAbsent(2, 40));
+    }
+
+    @Test
+    void testThrowsWhenFullOrZeroKey() {
+        LongIntHashMap map = new LongIntHashMap(1);
+        map.putIfAbsent(1, 1);
+        assertThrows(IllegalStateException.class, () -> map.putIfAbsent(2, 2));
+        assertThrows(IllegalArgumentException.class, () -> map.putIfAbsent(0, 1));
+    }
+}
@@ -1,5 +1,6 @@
 package com.pavelhudau.points;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.CsvSource;
@@ -77,4 +78,46 @@ public class TestPoint {
     void testWhenInvalidXOrYThenExceptionIsThrown(int x, int y) {
         assertThrows(IllegalArgumentException.class, () -> new Point(x, y));
     }
+
+    @ParameterizedTest
+    @CsvSource({
+            "2, 2, 2, 4, 1, 2",
+            "2, 4, -2, -4, 1, 2",
+            "5, 5, 3, 0, 1, 0",
+            "5, 5, -4, 0, 1, 0",
+            "5, 5, 0, 4, 0, 1",
+            "5, 5, 0, -5, 0, 1",
+            "3, 4, 6, -4, 3, -2",
+            "3, 4, -3, 2, 3, -2",
+    })
+    void testDirection(int thisX, int thisY, int dx, int dy, int expectedDx, int expectedDy) {
+        Point thisPoint = new Point(thisX, thisY);
+        Point thatPoint = new Point(thisX + dx, thisY + dy);
+        long direction = thisPoint.direction(thatPoint);
+        assertEquals(expectedDx, (int) (direction >> 32));
+        assertEquals(expectedDy, (int) direction);
+    }
+
+    @Test
+    void testDirectionIsSameOnlyForEqualSlopes() {
+        Point thisPoint = new Point(100, 100);
+        for (int x = 0; x < 30; x++) {
+            for (int y = 0; y < 30; y++) {
+                Point thatPoint = new Point(x, y);
+                for (int otherX = 0; otherX < 30; otherX += 7) {
+                    for (int otherY = 0; otherY < 30; otherY += 5) {
+                        Point otherPoint = new Point(otherX, otherY);
+                        assertEquals(
+                                thisPoint.slopeTo(thatPoint) == thisPoint.slopeTo(otherPoint),
+                                thisPoint.direction(thatPoint) == thisPoint.direction(otherPoint));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testDirectionOfSamePointIsZero() {
+        assertEquals(0, new Point(3, 4).direction(new Point(3, 4)));
+    }
 }
@@ -0,0 +1,146 @@
+package com.pavelhudau.queues;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Linked Deque against ResizingArrayDeque and ChunkedDeque: filling and draining as a queue and as a stack, and iteration.
+ * Not a unit test, run main() or org.openjdk.jmh.Main DequeBenchmark with the test classpath after mvn test-compile.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DequeBenchmark {
+    @Param({"1000", "1000000"})
+    private int size;
+    private Integer[] items;
+    private Deque<Integer> linkedToIterate;
+    private ResizingArrayDeque<Integer> arrayToIterate;
+    private ChunkedDeque<Integer> chunkedToIterate;
+
+    @Setup
+    public void setUp() {
+        this.items = new Integer[this.size];
+        this.linkedToIterate = new Deque<>();
+        this.arrayToIterate = new ResizingArrayDeque<>();
+        this.chunkedToIterate = new ChunkedDeque<>();
+        for (int i = 0; i < this.size; i++) {
+            this.items[i] = i;
+            this.linkedToIterate.addLast(this.items[i]);
+            this.arrayToIterate.addLast(this.items[i]);
+            this.chunkedToIterate.addLast(this.items[i]);
+        }
+    }
+
+    @Benchmark
+    public void linkedQueue(Blackhole blackhole) {
+        Deque<Integer> deque = new Deque<>();
+        for (Integer item : this.items) {
+            deque.addLast(item);
+        }
+        while (!deque.isEmpty()) {
+            blackhole.consume(deque.removeFirst());
+        }
+    }
+
+    @Benchmark
+    public void arrayQueue(Blackhole blackhole) {
+        ResizingArrayDeque<Integer> deque = new ResizingArrayDeque<>();
+        for (Integer item : this.items) {
+            deque.addLast(item);
+        }
+        while (!deque.isEmpty()) {
+            blackhole.consume(deque.removeFirst());
+        }
+    }
+
+    @Benchmark
+    public void chunkedQueue(Blackhole blackhole) {
+        ChunkedDeque<Integer> deque = new ChunkedDeque<>();
+        for (Integer item : this.items) {
+            deque.addLast(item);
+        }
+        while (!deque.isEmpty()) {
+            blackhole.consume(deque.removeFirst());
+        }
+    }
+
+    @Benchmark
+    public void linkedStack(Blackhole blackhole) {
+        Deque<Integer> deque = new Deque<>();
+        for (Integer item : this.items) {
+            deque.addFirst(item);
+        }
+        while (!deque.isEmpty()) {
+            blackhole.consume(deque.removeFirst());
+        }
+    }
+
+    @Benchmark
+    public void arrayStack(Blackhole blackhole) {
+        ResizingArrayDeque<Integer> deque = new ResizingArrayDeque<>();
+        for (Integer item : this.items) {
+            deque.addFirst(item);
+        }
+        while (!deque.isEmpty()) {
+            blackhole.consume(deque.removeFirst());
+        }
+    }
+
+    @Benchmark
+    public void chunkedStack(Blackhole blackhole) {
+        ChunkedDeque<Integer> deque = new ChunkedDeque<>();
+        for (Integer item : this.items) {
+            deque.addFirst(item);
+        }
+        while (!deque.isEmpty()) {
+            blackhole.consume(deque.removeFirst());
+        }
+    }
+
+    @Benchmark
+    public void linkedIterate(Blackhole blackhole) {
+        for (Integer item : this.linkedToIterate) {
+            blackhole.consume(item);
+        }
+    }
+
+    @Benchmark
+    public void arrayIterate(Blackhole blackhole) {
+        for (Integer item : this.arrayToIterate) {
+            blackhole.consume(item);
+        }
+    }
+
+    @Benchmark
+    public void chunkedIterate(Blackhole blackhole) {
+        for (Integer item : this.chunkedToIterate) {
+            blackhole.consume(item);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DequeBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
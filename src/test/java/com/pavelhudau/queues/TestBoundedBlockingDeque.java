@@ -0,0 +1,164 @@
+package com.pavelhudau.queues;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestBoundedBlockingDeque {
+    @Test
+    void testPutAndTakeBothEnds() throws InterruptedException {
+        BoundedBlockingDeque<Integer> deque = new BoundedBlockingDeque<>(3);
+        assertTrue(deque.isEmpty());
+        deque.putLast(2);
+        deque.putFirst(1);
+        deque.putLast(3);
+        assertEquals(3, deque.size());
+        assertEquals(0, deque.remainingCapacity());
+
+        assertEquals(1, deque.takeFirst());
+        assertEquals(3, deque.takeLast());
+        assertEquals(2, deque.takeFirst());
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    void testTimedOfferFailsWhenFull() throws InterruptedException {
+        BoundedBlockingDeque<Integer> deque = new BoundedBlockingDeque<>(1);
+        assertTrue(deque.offerLast(1, 0, TimeUnit.MILLISECONDS));
+        assertFalse(deque.offerLast(2, 0, TimeUnit.MILLISECONDS));
+        assertFalse(deque.offerFirst(2, 10, TimeUnit.MILLISECONDS));
+        assertEquals(1, deque.size());
+    }
+
+    @Test
+    void testTimedPollReturnsNullWhenEmpty() throws InterruptedException {
+        BoundedBlockingDeque<Integer> deque = new BoundedBlockingDeque<>(1);
+        assertNull(deque.pollFirst(0, TimeUnit.MILLISECONDS));
+        assertNull(deque.pollLast(10, TimeUnit.MILLISECONDS));
+        deque.putLast(1);
+        assertEquals(1, deque.pollLast(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testPutWaitsForTake() throws InterruptedException {
+        BoundedBlockingDeque<Integer> deque = new BoundedBlockingDeque<>(1);
+        deque.putLast(1);
+        Thread producer = new Thread(() -> {
+            try {
+                deque.putLast(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        producer.join(50);
+        assertTrue(producer.isAlive());
+
+        assertEquals(1, deque.takeFirst());
+        producer.join(5000);
+        assertFalse(producer.isAlive());
+        assertEquals(2, deque.takeFirst());
+    }
+
+    @Test
+    void testTakeIsInterruptible() throws InterruptedException {
+        BoundedBlockingDeque<Integer> deque = new BoundedBlockingDeque<>(1);
+        Thread.currentThread().interrupt();
+        assertThrows(InterruptedException.class, deque::takeFirst);
+        assertFalse(Thread.interrupted());
+    }
+
+    @Test
+    void testDrainTo() throws InterruptedException {
+        BoundedBlockingDeque<Integer> deque = new BoundedBlockingDeque<>(5);
+        for (int i = 0; i < 5; i++) {
+            deque.putLast(i);
+        }
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(3, deque.drainTo(drained, 3));
+        assertEquals(Arrays.asList(0, 1, 2), drained);
+        assertEquals(2, deque.drainTo(drained, 10));
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), drained);
+        assertEquals(0, deque.drainTo(drained, 10));
+    }
+
+    @Test
+    void testProducersAndConsumersDoNotLoseItems() throws InterruptedException {
+        BoundedBlockingDeque<Integer> deque = new BoundedBlockingDeque<>(4);
+        int producers = 3;
+        int itemsPerProducer = 10_000;
+        AtomicLong sum = new AtomicLong();
+        AtomicLong count = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            boolean first = p % 2 == 0;
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 1; i <= itemsPerProducer; i++) {
+                        if (first) {
+                            deque.putFirst(i);
+                        } else {
+                            deque.putLast(i);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        for (int c = 0; c < 2; c++) {
+            boolean batch = c == 0;
+            threads.add(new Thread(() -> {
+                List<Integer> buffer = new ArrayList<>();
+                try {
+                    while (count.get() < (long) producers * itemsPerProducer) {
+                        if (batch) {
+                            buffer.clear();
+                            deque.drainTo(buffer, 3);
+                            for (int item : buffer) {
+                                sum.addAndGet(item);
+                                count.incrementAndGet();
+                            }
+                        } else {
+                            Integer item = deque.pollLast(1, TimeUnit.MILLISECONDS);
+                            if (item != null) {
+                                sum.addAndGet(item);
+                                count.incrementAndGet();
+                            }
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join(30_000);
+            assertFalse(thread.isAlive());
+        }
+        assertEquals((long) producers * itemsPerProducer, count.get());
+        assertEquals((long) producers * itemsPerProducer * (itemsPerProducer + 1) / 2, sum.get());
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    void testThrowsOnInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedBlockingDeque<Integer>(0));
+        BoundedBlockingDeque<Integer> deque = new BoundedBlockingDeque<>(1);
+        assertThrows(IllegalArgumentException.class, () -> deque.putFirst(null));
+        assertThrows(IllegalArgumentException.class, () -> deque.offerLast(null, 1, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class, () -> deque.drainTo(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> deque.drainTo(new ArrayList<>(), -1));
+    }
+}
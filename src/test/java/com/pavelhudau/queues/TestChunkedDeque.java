@@ -0,0 +1,113 @@
+package com.pavelhudau.queues;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestChunkedDeque {
+    @Test
+    void testIsEmptyAndSize() {
+        ChunkedDeque<Integer> deque = new ChunkedDeque<>();
+        assertTrue(deque.isEmpty());
+        assertEquals(0, deque.size());
+
+        deque.addFirst(1);
+        deque.addLast(2);
+        assertFalse(deque.isEmpty());
+        assertEquals(2, deque.size());
+
+        deque.removeFirst();
+        deque.removeLast();
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    void testAddFirstAndAddLastAcrossChunks() {
+        ChunkedDeque<Integer> deque = new ChunkedDeque<>(2);
+        for (int i = 0; i < 10; i++) {
+            deque.addLast(i);
+            deque.addFirst(-i - 1);
+        }
+        for (int i = -10; i < 10; i++) {
+            assertEquals(i, deque.removeFirst());
+        }
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    void testRemoveWhenEmptyThenExceptionIsThrown() {
+        ChunkedDeque<Integer> deque = new ChunkedDeque<>();
+        assertThrows(NoSuchElementException.class, deque::removeFirst);
+        assertThrows(NoSuchElementException.class, deque::removeLast);
+    }
+
+    @Test
+    void testAddNullThenExceptionIsThrown() {
+        ChunkedDeque<Integer> deque = new ChunkedDeque<>();
+        assertThrows(IllegalArgumentException.class, () -> deque.addFirst(null));
+        assertThrows(IllegalArgumentException.class, () -> deque.addLast(null));
+    }
+
+    @Test
+    void testInvalidChunkSizeThenExceptionIsThrown() {
+        assertThrows(IllegalArgumentException.class, () -> new ChunkedDeque<Integer>(1));
+    }
+
+    @Test
+    void testIteratorAcrossChunks() {
+        ChunkedDeque<Integer> deque = new ChunkedDeque<>(3);
+        for (int i = 0; i < 10; i++) {
+            deque.addLast(i);
+        }
+
+        Iterator<Integer> iterator = deque.iterator();
+        for (int i = 0; i < 10; i++) {
+            assertTrue(iterator.hasNext());
+            assertEquals(i, iterator.next());
+        }
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+        assertThrows(UnsupportedOperationException.class, iterator::remove);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 3, 64})
+    void testSameAsArrayDequeWhenGrowingAndShrinking(int chunkSize) {
+        ChunkedDeque<Integer> deque = new ChunkedDeque<>(chunkSize);
+        java.util.Deque<Integer> expected = new ArrayDeque<>();
+        Random random = new Random(chunkSize);
+        for (int i = 0; i < 20000; i++) {
+            // Grows in the first half, shrinks in the second half.
+            boolean add = random.nextInt(100) < (i < 10000 ? 70 : 30);
+            if (add) {
+                if (random.nextBoolean()) {
+                    deque.addFirst(i);
+                    expected.addFirst(i);
+                } else {
+                    deque.addLast(i);
+                    expected.addLast(i);
+                }
+            } else if (!expected.isEmpty()) {
+                if (random.nextBoolean()) {
+                    assertEquals(expected.removeFirst(), deque.removeFirst());
+                } else {
+                    assertEquals(expected.removeLast(), deque.removeLast());
+                }
+            }
+            assertEquals(expected.size(), deque.size());
+        }
+
+        Iterator<Integer> expectedIterator = expected.iterator();
+        for (Integer item : deque) {
+            assertEquals(expectedIterator.next(), item);
+        }
+        assertFalse(expectedIterator.hasNext());
+    }
+}
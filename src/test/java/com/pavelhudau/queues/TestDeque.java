@@ -3,6 +3,8 @@ package com.pavelhudau.queues;
 import org.junit.jupiter.api.Test;
 
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -163,4 +165,40 @@ public class TestDeque {
             deque.iterator().next();
         });
     }
+
+    @Test
+    void testStreamKeepsOrder() {
+        Deque<Integer> deque = new Deque<>();
+        for (int i = 0; i < 5000; i++) {
+            deque.addLast(i);
+        }
+
+        assertEquals(deque.stream().collect(Collectors.toList()), deque.parallelStream().collect(Collectors.toList()));
+        assertEquals(4999L * 5000 / 2, deque.parallelStream().mapToLong(Integer::longValue).sum());
+        int expected = 0;
+        for (int item : deque.stream().collect(Collectors.toList())) {
+            assertEquals(expected++, item);
+        }
+    }
+
+    @Test
+    void testSpliteratorSplitsIntoSizedParts() {
+        Deque<Integer> deque = new Deque<>();
+        for (int i = 0; i < 3000; i++) {
+            deque.addLast(i);
+        }
+
+        Spliterator<Integer> suffix = deque.spliterator();
+        assertTrue(suffix.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        Spliterator<Integer> prefix = suffix.trySplit();
+        assertNotNull(prefix);
+        assertTrue(prefix.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+        assertEquals(3000, prefix.estimateSize() + suffix.estimateSize());
+
+        int[] next = {0};
+        prefix.forEachRemaining(item -> assertEquals(next[0]++, item));
+        suffix.forEachRemaining(item -> assertEquals(next[0]++, item));
+        assertEquals(3000, next[0]);
+        assertFalse(suffix.tryAdvance(item -> fail()));
+    }
 }
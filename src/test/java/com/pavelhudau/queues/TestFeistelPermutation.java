@@ -0,0 +1,61 @@
+package com.pavelhudau.queues;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestFeistelPermutation {
+    @Test
+    void testIsPermutationForAnySize() {
+        for (int size = 0; size <= 300; size++) {
+            assertIsPermutation(new FeistelPermutation(size, size * 31L), size);
+        }
+        assertIsPermutation(new FeistelPermutation(100003, 7L), 100003);
+    }
+
+    @Test
+    void testDifferentKeysGiveDifferentPermutations() {
+        FeistelPermutation first = new FeistelPermutation(1000, 1L);
+        FeistelPermutation second = new FeistelPermutation(1000, 2L);
+        int same = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (first.apply(i) == second.apply(i)) {
+                same++;
+            }
+        }
+        assertTrue(same < 20);
+    }
+
+    @Test
+    void testSameKeyGivesSamePermutation() {
+        FeistelPermutation first = new FeistelPermutation(1000, 5L);
+        FeistelPermutation second = new FeistelPermutation(1000, 5L);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(first.apply(i), second.apply(i));
+        }
+    }
+
+    @Test
+    void testLargeSize() {
+        FeistelPermutation permutation = new FeistelPermutation(Integer.MAX_VALUE, 3L);
+        int value = permutation.apply(Integer.MAX_VALUE - 1);
+        assertTrue(value >= 0);
+    }
+
+    @Test
+    void testOutOfRangeThenExceptionIsThrown() {
+        FeistelPermutation permutation = new FeistelPermutation(10, 1L);
+        assertThrows(IllegalArgumentException.class, () -> permutation.apply(10));
+        assertThrows(IllegalArgumentException.class, () -> permutation.apply(-1));
+        assertThrows(IllegalArgumentException.class, () -> new FeistelPermutation(-1, 1L));
+    }
+
+    private static void assertIsPermutation(FeistelPermutation permutation, int size) {
+        boolean[] seen = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            int value = permutation.apply(i);
+            assertFalse(seen[value]);
+            seen[value] = true;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.pavelhudau.queues;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestIntDeque {
+    @Test
+    void testAddAndRemoveFromBothEnds() {
+        IntDeque deque = new IntDeque(2);
+        assertTrue(deque.isEmpty());
+        deque.addFirst(2);
+        deque.addFirst(1);
+        deque.addLast(3);
+        deque.addLast(4);
+        assertEquals(4, deque.size());
+        assertEquals(1, deque.removeFirst());
+        assertEquals(4, deque.removeLast());
+        assertEquals(2, deque.removeFirst());
+        assertEquals(3, deque.removeLast());
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    void testRemoveWhenEmptyThenExceptionIsThrown() {
+        IntDeque deque = new IntDeque();
+        assertThrows(NoSuchElementException.class, deque::removeFirst);
+        assertThrows(NoSuchElementException.class, deque::removeLast);
+        assertThrows(IllegalArgumentException.class, () -> new IntDeque(-1));
+    }
+
+    @Test
+    void testIteratorAndForEachWhenItemsWrapAround() {
+        IntDeque deque = new IntDeque(4);
+        deque.addLast(2);
+        deque.addLast(3);
+        deque.addFirst(1);
+        deque.addFirst(0);
+
+        PrimitiveIterator.OfInt iterator = deque.iterator();
+        for (int i = 0; i < 4; i++) {
+            assertTrue(iterator.hasNext());
+            assertEquals(i, iterator.nextInt());
+        }
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::nextInt);
+        assertThrows(UnsupportedOperationException.class, iterator::remove);
+
+        int[] expected = {0};
+        deque.forEach((int item) -> assertEquals(expected[0]++, item));
+        assertEquals(4, expected[0]);
+        assertThrows(NullPointerException.class, () -> deque.forEach((IntConsumer) null));
+    }
+
+    @Test
+    void testSameAsArrayDeque() {
+        IntDeque deque = new IntDeque(1);
+        java.util.Deque<Integer> expected = new ArrayDeque<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 20000; i++) {
+            boolean add = random.nextInt(100) < (i < 10000 ? 70 : 30);
+            if (add) {
+                int item = random.nextInt();
+                if (random.nextBoolean()) {
+                    deque.addFirst(item);
+                    expected.addFirst(item);
+                } else {
+                    deque.addLast(item);
+                    expected.addLast(item);
+                }
+            } else if (!expected.isEmpty()) {
+                if (random.nextBoolean()) {
+                    assertEquals((int) expected.removeFirst(), deque.removeFirst());
+                } else {
+                    assertEquals((int) expected.removeLast(), deque.removeLast());
+                }
+            }
+            assertEquals(expected.size(), deque.size());
+        }
+
+        Iterator<Integer> expectedIterator = expected.iterator();
+        deque.forEach((int item) -> assertEquals((int) expectedIterator.next(), item));
+        assertFalse(expectedIterator.hasNext());
+    }
+}
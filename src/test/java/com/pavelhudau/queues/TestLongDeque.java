@@ -0,0 +1,92 @@
+package com.pavelhudau.queues;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLongDeque {
+    @Test
+    void testAddAndRemoveFromBothEnds() {
+        LongDeque deque = new LongDeque(2);
+        assertTrue(deque.isEmpty());
+        deque.addFirst(2);
+        deque.addFirst(1);
+        deque.addLast(3);
+        deque.addLast(4);
+        assertEquals(4, deque.size());
+        assertEquals(1, deque.removeFirst());
+        assertEquals(4, deque.removeLast());
+        assertEquals(2, deque.removeFirst());
+        assertEquals(3, deque.removeLast());
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    void testRemoveWhenEmptyThenExceptionIsThrown() {
+        LongDeque deque = new LongDeque();
+        assertThrows(NoSuchElementException.class, deque::removeFirst);
+        assertThrows(NoSuchElementException.class, deque::removeLast);
+        assertThrows(IllegalArgumentException.class, () -> new LongDeque(-1));
+    }
+
+    @Test
+    void testIteratorAndForEachWhenItemsWrapAround() {
+        LongDeque deque = new LongDeque(4);
+        deque.addLast(2);
+        deque.addLast(3);
+        deque.addFirst(1);
+        deque.addFirst(0);
+
+        PrimitiveIterator.OfLong iterator = deque.iterator();
+        for (int i = 0; i < 4; i++) {
+            assertTrue(iterator.hasNext());
+            assertEquals(i, iterator.nextLong());
+        }
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::nextLong);
+        assertThrows(UnsupportedOperationException.class, iterator::remove);
+
+        int[] expected = {0};
+        deque.forEach((long item) -> assertEquals(expected[0]++, item));
+        assertEquals(4, expected[0]);
+        assertThrows(NullPointerException.class, () -> deque.forEach((LongConsumer) null));
+    }
+
+    @Test
+    void testSameAsArrayDeque() {
+        LongDeque deque = new LongDeque(1);
+        java.util.Deque<Long> expected = new ArrayDeque<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 20000; i++) {
+            boolean add = random.nextInt(100) < (i < 10000 ? 70 : 30);
+            if (add) {
+                long item = random.nextLong();
+                if (random.nextBoolean()) {
+                    deque.addFirst(item);
+                    expected.addFirst(item);
+                } else {
+                    deque.addLast(item);
+                    expected.addLast(item);
+                }
+            } else if (!expected.isEmpty()) {
+                if (random.nextBoolean()) {
+                    assertEquals((long) expected.removeFirst(), deque.removeFirst());
+                } else {
+                    assertEquals((long) expected.removeLast(), deque.removeLast());
+                }
+            }
+            assertEquals(expected.size(), deque.size());
+        }
+
+        Iterator<Long> expectedIterator = expected.iterator();
+        deque.forEach((long item) -> assertEquals((long) expectedIterator.next(), item));
+        assertFalse(expectedIterator.hasNext());
+    }
+}
@@ -1,8 +1,15 @@
 package com.pavelhudau.queues;
 
+import com.pavelhudau.random.RandomSource;
 import org.junit.jupiter.api.Test;
 
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -112,4 +119,125 @@ public class TestRandomizedQueue {
         RandomizedQueue<Integer> randQueue = new RandomizedQueue<>();
         assertThrows(NoSuchElementException.class, () -> randQueue.iterator().next());
     }
+
+    @Test
+    void testIteratorReturnsEveryItemOnce() {
+        int size = 1000;
+        RandomizedQueue<Integer> randQueue = new RandomizedQueue<>();
+        for (int i = 0; i < size; i++) {
+            randQueue.enqueue(i);
+        }
+
+        boolean[] seen = new boolean[size];
+        for (Integer item : randQueue) {
+            assertFalse(seen[item]);
+            seen[item] = true;
+        }
+        for (boolean itemSeen : seen) {
+            assertTrue(itemSeen);
+        }
+    }
+
+    @Test
+    void testIteratorsAreIndependent() {
+        RandomizedQueue<Integer> randQueue = new RandomizedQueue<>();
+        for (int i = 0; i < 100; i++) {
+            randQueue.enqueue(i);
+        }
+
+        Iterator<Integer> first = randQueue.iterator();
+        Iterator<Integer> second = randQueue.iterator();
+        boolean differ = false;
+        while (first.hasNext()) {
+            differ |= !first.next().equals(second.next());
+        }
+        assertFalse(second.hasNext());
+        assertTrue(differ);
+    }
+
+    @Test
+    void testIteratorWhenQueueChangesThenExceptionIsThrown() {
+        RandomizedQueue<Integer> randQueue = new RandomizedQueue<>();
+        randQueue.enqueue(1);
+        randQueue.enqueue(2);
+        Iterator<Integer> iterator = randQueue.iterator();
+        iterator.next();
+        randQueue.enqueue(3);
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+    }
+
+    @Test
+    void testSeededRandomSourceIsReproducible() {
+        RandomizedQueue<Integer> first = new RandomizedQueue<>(RandomSource.splittable(3L));
+        RandomizedQueue<Integer> second = new RandomizedQueue<>(RandomSource.splittable(3L));
+        for (int i = 0; i < 100; i++) {
+            first.enqueue(i);
+            second.enqueue(i);
+        }
+
+        Iterator<Integer> secondIterator = second.iterator();
+        for (Integer item : first) {
+            assertEquals(item, secondIterator.next());
+        }
+        while (!first.isEmpty()) {
+            assertEquals(first.sample(), second.sample());
+            assertEquals(first.dequeue(), second.dequeue());
+        }
+    }
+
+    @Test
+    void testThreadLocalRandomSource() {
+        RandomizedQueue<Integer> randQueue = new RandomizedQueue<>(RandomSource.threadLocal());
+        for (int i = 0; i < 10; i++) {
+            randQueue.enqueue(i);
+        }
+        int sum = 0;
+        while (!randQueue.isEmpty()) {
+            sum += randQueue.dequeue();
+        }
+        assertEquals(45, sum);
+        assertThrows(IllegalArgumentException.class, () -> new RandomizedQueue<Integer>(null));
+    }
+
+    @Test
+    void testParallelStreamVisitsEveryItemOnce() {
+        RandomizedQueue<Integer> randQueue = new RandomizedQueue<>();
+        int size = 10_000;
+        for (int i = 0; i < size; i++) {
+            randQueue.enqueue(i);
+        }
+
+        Set<Integer> items = randQueue.parallelStream().collect(Collectors.toSet());
+        assertEquals(size, items.size());
+        assertEquals((long) size * (size - 1) / 2, randQueue.stream().mapToLong(Integer::longValue).sum());
+    }
+
+    @Test
+    void testSpliteratorSplitsInHalves() {
+        RandomizedQueue<Integer> randQueue = new RandomizedQueue<>();
+        for (int i = 0; i < 11; i++) {
+            randQueue.enqueue(i);
+        }
+
+        Spliterator<Integer> suffix = randQueue.spliterator();
+        assertTrue(suffix.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL));
+        Spliterator<Integer> prefix = suffix.trySplit();
+        assertEquals(5, prefix.estimateSize());
+        assertEquals(6, suffix.estimateSize());
+
+        Set<Integer> items = new HashSet<>();
+        prefix.forEachRemaining(items::add);
+        suffix.forEachRemaining(items::add);
+        assertEquals(11, items.size());
+    }
+
+    @Test
+    void testSpliteratorFailsFastWhenQueueChanges() {
+        RandomizedQueue<Integer> randQueue = new RandomizedQueue<>();
+        randQueue.enqueue(1);
+        randQueue.enqueue(2);
+        Spliterator<Integer> spliterator = randQueue.spliterator();
+        randQueue.enqueue(3);
+        assertThrows(ConcurrentModificationException.class, () -> spliterator.tryAdvance(item -> { }));
+    }
 }
@@ -0,0 +1,108 @@
+package com.pavelhudau.queues;
+
+import com.pavelhudau.random.RandomSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestReservoirSampler {
+    @Test
+    void testKeepsAllItemsWhenFewerThanK() {
+        ReservoirSampler<Integer> sampler = new ReservoirSampler<>(10, RandomSource.splittable(1L));
+        for (int i = 0; i < 4; i++) {
+            sampler.add(i);
+        }
+
+        RandomizedQueue<Integer> sample = sampler.sample();
+        assertEquals(4, sample.size());
+        Set<Integer> items = new HashSet<>();
+        for (int item : sample) {
+            items.add(item);
+        }
+        assertEquals(4, items.size());
+        assertEquals(4, sampler.seen());
+    }
+
+    @Test
+    void testKeepsKDistinctItems() {
+        int k = 7;
+        ReservoirSampler<Integer> sampler = new ReservoirSampler<>(k, RandomSource.splittable(2L));
+        for (int i = 0; i < 10_000; i++) {
+            sampler.add(i);
+        }
+
+        Set<Integer> items = new HashSet<>();
+        for (int item : sampler.sample()) {
+            assertTrue(item >= 0 && item < 10_000);
+            items.add(item);
+        }
+        assertEquals(k, items.size());
+        assertEquals(10_000, sampler.seen());
+    }
+
+    @Test
+    void testEveryItemIsEquallyLikelyToBeSampled() {
+        int n = 20;
+        int k = 5;
+        int runs = 20_000;
+        int[] counts = new int[n];
+        RandomSource random = RandomSource.splittable(3L);
+        for (int run = 0; run < runs; run++) {
+            ReservoirSampler<Integer> sampler = new ReservoirSampler<>(k, random);
+            for (int i = 0; i < n; i++) {
+                sampler.add(i);
+            }
+            for (int item : sampler.sample()) {
+                counts[item]++;
+            }
+        }
+
+        double expected = (double) runs * k / n;
+        for (int count : counts) {
+            assertEquals(expected, count, expected * 0.1);
+        }
+    }
+
+    @Test
+    void testSkippedItemsAreEquallyLikelyToBeSampled() {
+        // Most items of a long stream are skipped, buckets of items must still be hit equally often.
+        int n = 10_000;
+        int k = 3;
+        int buckets = 10;
+        int runs = 20_000;
+        int[] counts = new int[buckets];
+        RandomSource random = RandomSource.splittable(5L);
+        for (int run = 0; run < runs; run++) {
+            ReservoirSampler<Integer> sampler = new ReservoirSampler<>(k, random);
+            for (int i = 0; i < n; i++) {
+                sampler.add(i);
+            }
+            for (int item : sampler.sample()) {
+                counts[item * buckets / n]++;
+            }
+        }
+
+        double expected = (double) runs * k / buckets;
+        for (int count : counts) {
+            assertEquals(expected, count, expected * 0.05);
+        }
+    }
+
+    @Test
+    void testZeroK() {
+        ReservoirSampler<String> sampler = new ReservoirSampler<>(0, RandomSource.splittable(4L));
+        sampler.add("A");
+        assertTrue(sampler.sample().isEmpty());
+    }
+
+    @Test
+    void testThrowsOnInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ReservoirSampler<String>(-1, RandomSource.stdRandom()));
+        assertThrows(IllegalArgumentException.class, () -> new ReservoirSampler<String>(1, null));
+        ReservoirSampler<String> sampler = new ReservoirSampler<>(1, RandomSource.stdRandom());
+        assertThrows(IllegalArgumentException.class, () -> sampler.add(null));
+    }
+}
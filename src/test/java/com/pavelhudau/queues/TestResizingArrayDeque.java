@@ -0,0 +1,149 @@
+package com.pavelhudau.queues;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestResizingArrayDeque {
+    @Test
+    void testIsEmptyAndSize() {
+        ResizingArrayDeque<Integer> deque = new ResizingArrayDeque<>();
+        assertTrue(deque.isEmpty());
+        assertEquals(0, deque.size());
+
+        deque.addFirst(1);
+        deque.addLast(2);
+        assertFalse(deque.isEmpty());
+        assertEquals(2, deque.size());
+
+        deque.removeFirst();
+        deque.removeLast();
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    void testAddFirstAndAddLast() {
+        ResizingArrayDeque<Integer> deque = new ResizingArrayDeque<>(2);
+        deque.addFirst(2);
+        deque.addFirst(1);
+        deque.addLast(3);
+        deque.addLast(4);
+        deque.addFirst(0);
+        assertEquals(0, deque.removeFirst());
+        assertEquals(4, deque.removeLast());
+        assertEquals(1, deque.removeFirst());
+        assertEquals(3, deque.removeLast());
+        assertEquals(2, deque.removeFirst());
+    }
+
+    @Test
+    void testRemoveWhenEmptyThenExceptionIsThrown() {
+        ResizingArrayDeque<Integer> deque = new ResizingArrayDeque<>();
+        assertThrows(NoSuchElementException.class, deque::removeFirst);
+        assertThrows(NoSuchElementException.class, deque::removeLast);
+    }
+
+    @Test
+    void testAddNullThenExceptionIsThrown() {
+        ResizingArrayDeque<Integer> deque = new ResizingArrayDeque<>();
+        assertThrows(IllegalArgumentException.class, () -> deque.addFirst(null));
+        assertThrows(IllegalArgumentException.class, () -> deque.addLast(null));
+    }
+
+    @Test
+    void testInvalidInitialCapacityThenExceptionIsThrown() {
+        assertThrows(IllegalArgumentException.class, () -> new ResizingArrayDeque<Integer>(0));
+    }
+
+    @Test
+    void testIteratorWhenItemsWrapAround() {
+        ResizingArrayDeque<Integer> deque = new ResizingArrayDeque<>(4);
+        deque.addLast(2);
+        deque.addLast(3);
+        deque.addFirst(1);
+        deque.addFirst(0);
+
+        Iterator<Integer> iterator = deque.iterator();
+        for (int i = 0; i < 4; i++) {
+            assertTrue(iterator.hasNext());
+            assertEquals(i, iterator.next());
+        }
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+        assertThrows(UnsupportedOperationException.class, iterator::remove);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 64})
+    void testSameAsArrayDequeWhenGrowingAndShrinking(int initialCapacity) {
+        ResizingArrayDeque<Integer> deque = new ResizingArrayDeque<>(initialCapacity);
+        java.util.Deque<Integer> expected = new ArrayDeque<>();
+        Random random = new Random(initialCapacity);
+        for (int i = 0; i < 20000; i++) {
+            // Grows in the first half, shrinks in the second half.
+            boolean add = random.nextInt(100) < (i < 10000 ? 70 : 30);
+            if (add) {
+                if (random.nextBoolean()) {
+                    deque.addFirst(i);
+                    expected.addFirst(i);
+                } else {
+                    deque.addLast(i);
+                    expected.addLast(i);
+                }
+            } else if (!expected.isEmpty()) {
+                if (random.nextBoolean()) {
+                    assertEquals(expected.removeFirst(), deque.removeFirst());
+                } else {
+                    assertEquals(expected.removeLast(), deque.removeLast());
+                }
+            }
+            assertEquals(expected.size(), deque.size());
+        }
+
+        Iterator<Integer> expectedIterator = expected.iterator();
+        for (Integer item : deque) {
+            assertEquals(expectedIterator.next(), item);
+        }
+        assertFalse(expectedIterator.hasNext());
+    }
+
+    @Test
+    void testStreamKeepsOrderWhenItemsWrapAround() {
+        ResizingArrayDeque<Integer> deque = new ResizingArrayDeque<>();
+        for (int i = 0; i < 1000; i++) {
+            deque.addFirst(-i - 1);
+            deque.addLast(i);
+        }
+
+        assertEquals(deque.stream().collect(Collectors.toList()), deque.parallelStream().collect(Collectors.toList()));
+        int expected = -1000;
+        for (int item : deque.parallelStream().collect(Collectors.toList())) {
+            assertEquals(expected++, item);
+        }
+    }
+
+    @Test
+    void testSpliteratorSplitsInHalves() {
+        ResizingArrayDeque<Integer> deque = new ResizingArrayDeque<>();
+        for (int i = 0; i < 101; i++) {
+            deque.addLast(i);
+        }
+
+        Spliterator<Integer> suffix = deque.spliterator();
+        assertTrue(suffix.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        Spliterator<Integer> prefix = suffix.trySplit();
+        assertEquals(50, prefix.estimateSize());
+        assertEquals(51, suffix.estimateSize());
+        assertTrue(prefix.tryAdvance(item -> assertEquals(0, item)));
+        assertEquals(49, prefix.estimateSize());
+    }
+}
@@ -0,0 +1,56 @@
+package com.pavelhudau.queues;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTokenReader {
+    @Test
+    void testSplitsOnWhitespace() throws IOException {
+        TokenReader reader = reader("  A B\tC\r\n\nDD  \fE");
+        assertEquals("A", reader.next());
+        assertEquals("B", reader.next());
+        assertEquals("C", reader.next());
+        assertEquals("DD", reader.next());
+        assertEquals("E", reader.next());
+        assertNull(reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void testEmptyInput() throws IOException {
+        assertNull(reader("").next());
+        assertNull(reader(" \n\t ").next());
+    }
+
+    @Test
+    void testDecodesUtf8() throws IOException {
+        TokenReader reader = reader("héllo 世界 ok");
+        assertEquals("héllo", reader.next());
+        assertEquals("世界", reader.next());
+        assertEquals("ok", reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void testTokensLongerThanBuffer() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200_000; i++) {
+            text.append((char) ('a' + i % 26));
+        }
+        String longToken = text.toString();
+        TokenReader reader = reader(longToken + " x " + longToken);
+        assertEquals(longToken, reader.next());
+        assertEquals("x", reader.next());
+        assertEquals(longToken, reader.next());
+        assertNull(reader.next());
+    }
+
+    private static TokenReader reader(String text) {
+        return new TokenReader(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,142 @@
+package com.pavelhudau.queues;
+
+import com.pavelhudau.random.RandomSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestWeightedRandomizedQueue {
+    @Test
+    void testIsEmptyAndSize() {
+        WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<>();
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.size());
+
+        queue.enqueue(1, 1.0);
+        queue.enqueue(2, 2.0);
+        assertFalse(queue.isEmpty());
+        assertEquals(2, queue.size());
+        assertEquals(3.0, queue.totalWeight(), 1e-12);
+
+        queue.dequeue();
+        queue.dequeue();
+        assertTrue(queue.isEmpty());
+        assertEquals(0.0, queue.totalWeight(), 1e-12);
+    }
+
+    @Test
+    void testDequeueReturnsEveryItemOnce() {
+        int size = 1000;
+        WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<>(RandomSource.splittable(1L));
+        for (int i = 0; i < size; i++) {
+            queue.enqueue(i, 1 + i % 7);
+        }
+
+        Set<Integer> dequeued = new HashSet<>();
+        while (!queue.isEmpty()) {
+            assertTrue(dequeued.add(queue.dequeue()));
+        }
+        assertEquals(size, dequeued.size());
+    }
+
+    @Test
+    void testSampleIsProportionalToWeight() {
+        WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<>(RandomSource.splittable(2L));
+        double[] weights = {1, 2, 3, 4, 0, 10};
+        for (int i = 0; i < weights.length; i++) {
+            queue.enqueue(i, weights[i]);
+        }
+
+        int samples = 200_000;
+        int[] counts = new int[weights.length];
+        for (int i = 0; i < samples; i++) {
+            counts[queue.sample()]++;
+        }
+
+        for (int i = 0; i < weights.length; i++) {
+            double expected = samples * weights[i] / 20;
+            assertEquals(expected, counts[i], samples * 0.01);
+        }
+        assertEquals(0, counts[4]);
+    }
+
+    @Test
+    void testSetWeight() {
+        WeightedRandomizedQueue<String> queue = new WeightedRandomizedQueue<>(RandomSource.splittable(3L));
+        WeightedRandomizedQueue.Handle<String> a = queue.enqueue("A", 1);
+        WeightedRandomizedQueue.Handle<String> b = queue.enqueue("B", 1);
+        queue.setWeight(a, 0);
+        assertEquals(0, queue.weight(a));
+        assertEquals(1, queue.weight(b));
+        assertEquals(1, queue.totalWeight(), 1e-12);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("B", queue.sample());
+        }
+
+        queue.setWeight(a, 5);
+        queue.setWeight(b, 0);
+        assertEquals("A", queue.dequeue());
+        assertFalse(a.isQueued());
+        assertTrue(b.isQueued());
+    }
+
+    @Test
+    void testHandlesFollowMovedItems() {
+        WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<>(RandomSource.splittable(4L));
+        int size = 100;
+        List<WeightedRandomizedQueue.Handle<Integer>> handles = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            handles.add(queue.enqueue(i, i + 1));
+        }
+
+        // Removing items moves others around and shrinks arrays, handles must still point to their items.
+        for (int i = 0; i < size; i += 2) {
+            assertEquals(i, queue.remove(handles.get(i)));
+        }
+        for (int i = 1; i < size; i += 2) {
+            assertTrue(handles.get(i).isQueued());
+            assertEquals(i + 1, queue.weight(handles.get(i)));
+        }
+        assertEquals(size / 2, queue.size());
+        assertEquals(2550, queue.totalWeight(), 1e-9);
+    }
+
+    @Test
+    void testThrowsWhenEmpty() {
+        WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<>();
+        assertThrows(NoSuchElementException.class, queue::dequeue);
+        assertThrows(NoSuchElementException.class, queue::sample);
+    }
+
+    @Test
+    void testThrowsWhenAllWeightsAreZero() {
+        WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<>();
+        queue.enqueue(1, 0);
+        assertThrows(IllegalStateException.class, queue::sample);
+    }
+
+    @Test
+    void testThrowsOnInvalidArguments() {
+        WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<>();
+        assertThrows(IllegalArgumentException.class, () -> new WeightedRandomizedQueue<Integer>(null));
+        assertThrows(IllegalArgumentException.class, () -> queue.enqueue(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> queue.enqueue(1, -1));
+        assertThrows(IllegalArgumentException.class, () -> queue.enqueue(1, Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> queue.enqueue(1, Double.POSITIVE_INFINITY));
+
+        WeightedRandomizedQueue.Handle<Integer> handle = queue.enqueue(1, 1);
+        queue.remove(handle);
+        assertThrows(IllegalArgumentException.class, () -> queue.setWeight(handle, 1));
+        assertThrows(IllegalArgumentException.class, () -> queue.remove(handle));
+
+        WeightedRandomizedQueue<Integer> other = new WeightedRandomizedQueue<>();
+        WeightedRandomizedQueue.Handle<Integer> otherHandle = other.enqueue(2, 1);
+        assertThrows(IllegalArgumentException.class, () -> queue.weight(otherHandle));
+    }
+}
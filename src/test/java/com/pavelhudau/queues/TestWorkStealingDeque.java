@@ -0,0 +1,101 @@
+package com.pavelhudau.queues;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestWorkStealingDeque {
+    @Test
+    void testOwnerUsesBackAsStack() {
+        WorkStealingDeque<Integer> deque = new WorkStealingDeque<>(2);
+        assertTrue(deque.isEmpty());
+        for (int i = 0; i < 10; i++) {
+            deque.addLast(i);
+        }
+        assertEquals(10, deque.size());
+        for (int i = 9; i >= 0; i--) {
+            assertEquals(i, deque.removeLast());
+        }
+        assertNull(deque.removeLast());
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    void testThiefTakesFromFront() {
+        WorkStealingDeque<Integer> deque = new WorkStealingDeque<>();
+        deque.addLast(1);
+        deque.addLast(2);
+        deque.addLast(3);
+        assertEquals(1, deque.steal());
+        assertEquals(3, deque.removeLast());
+        assertEquals(2, deque.steal());
+        assertNull(deque.steal());
+        assertNull(deque.removeLast());
+
+        deque.addLast(4);
+        assertEquals(4, deque.removeLast());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new WorkStealingDeque<Integer>(0));
+        assertThrows(IllegalArgumentException.class, () -> new WorkStealingDeque<Integer>().addLast(null));
+    }
+
+    @Test
+    void testStressEveryItemIsTakenExactlyOnce() throws InterruptedException {
+        int items = 200000;
+        int thieves = 3;
+        WorkStealingDeque<Integer> deque = new WorkStealingDeque<>(4);
+        AtomicIntegerArray taken = new AtomicIntegerArray(items);
+        AtomicBoolean ownerDone = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[thieves];
+        for (int k = 0; k < thieves; k++) {
+            threads[k] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (!ownerDone.get() || !deque.isEmpty()) {
+                    Integer item = deque.steal();
+                    if (item != null) {
+                        taken.incrementAndGet(item);
+                    }
+                }
+            });
+            threads[k].start();
+        }
+
+        start.countDown();
+        Random random = new Random(1);
+        for (int i = 0; i < items; i++) {
+            deque.addLast(i);
+            // Owner pops about a third of the time, so pops race with steals on the last item.
+            if (random.nextInt(3) == 0) {
+                Integer item = deque.removeLast();
+                if (item != null) {
+                    taken.incrementAndGet(item);
+                }
+            }
+        }
+        Integer item;
+        while ((item = deque.removeLast()) != null) {
+            taken.incrementAndGet(item);
+        }
+        ownerDone.set(true);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int i = 0; i < items; i++) {
+            assertEquals(1, taken.get(i), "item " + i);
+        }
+    }
+}
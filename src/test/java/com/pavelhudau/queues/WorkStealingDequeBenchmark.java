@@ -0,0 +1,84 @@
+package com.pavelhudau.queues;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of one owner and a number of thieves: WorkStealingDeque against Deque behind synchronized.
+ * main() runs it with 1 to N thieves, where N is the number of processors.
+ * Not a unit test, run main() with the test classpath after mvn test-compile.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkStealingDequeBenchmark {
+    @State(Scope.Group)
+    public static class WorkStealing {
+        private final WorkStealingDeque<Integer> deque = new WorkStealingDeque<>();
+    }
+
+    @State(Scope.Group)
+    public static class Synchronized {
+        private final Deque<Integer> deque = new Deque<>();
+    }
+
+    private static final Integer ITEM = 42;
+    // Owner keeps about that many items, so thieves have something to steal and the deque does not grow forever.
+    private static final int BACKLOG = 1024;
+
+    @Benchmark
+    @Group("workStealing")
+    public Integer workStealingOwner(WorkStealing state) {
+        state.deque.addLast(ITEM);
+        return state.deque.size() > BACKLOG ? state.deque.removeLast() : null;
+    }
+
+    @Benchmark
+    @Group("workStealing")
+    public Integer workStealingThief(WorkStealing state) {
+        return state.deque.steal();
+    }
+
+    @Benchmark
+    @Group("synchronized")
+    public Integer synchronizedOwner(Synchronized state) {
+        synchronized (state.deque) {
+            state.deque.addLast(ITEM);
+            return state.deque.size() > BACKLOG ? state.deque.removeLast() : null;
+        }
+    }
+
+    @Benchmark
+    @Group("synchronized")
+    public Integer synchronizedThief(Synchronized state) {
+        synchronized (state.deque) {
+            return state.deque.isEmpty() ? null : state.deque.removeFirst();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int thieves = 1; thieves <= processors; thieves++) {
+            new Runner(new OptionsBuilder()
+                    .include(WorkStealingDequeBenchmark.class.getSimpleName())
+                    .threadGroups(1, thieves)
+                    .build())
+                    .run();
+        }
+    }
+}
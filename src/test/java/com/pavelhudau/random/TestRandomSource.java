@@ -0,0 +1,49 @@
+package com.pavelhudau.random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestRandomSource {
+    @Test
+    void testUniformIsWithinBounds() {
+        RandomSource[] sources = {RandomSource.stdRandom(), RandomSource.splittable(1L), RandomSource.threadLocal()};
+        for (RandomSource source : sources) {
+            boolean[] seen = new boolean[5];
+            for (int i = 0; i < 1000; i++) {
+                int value = source.uniform(5);
+                assertTrue(value >= 0 && value < 5);
+                seen[value] = true;
+            }
+            for (boolean valueSeen : seen) {
+                assertTrue(valueSeen);
+            }
+            assertThrows(IllegalArgumentException.class, () -> source.uniform(0));
+        }
+    }
+
+    @Test
+    void testSplittableIsReproducible() {
+        RandomSource first = RandomSource.splittable(42L);
+        RandomSource second = RandomSource.splittable(42L);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(first.uniform(1000), second.uniform(1000));
+            assertEquals(first.nextLong(), second.nextLong());
+        }
+    }
+
+    @Test
+    void testNextLongUsesSignBit() {
+        RandomSource[] sources = {RandomSource.stdRandom(), RandomSource.splittable(1L), RandomSource.threadLocal()};
+        for (RandomSource source : sources) {
+            boolean negative = false;
+            boolean positive = false;
+            for (int i = 0; i < 200; i++) {
+                long value = source.nextLong();
+                negative |= value < 0;
+                positive |= value > 0;
+            }
+            assertTrue(negative && positive);
+        }
+    }
+}
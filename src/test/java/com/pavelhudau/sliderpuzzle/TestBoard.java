@@ -1,5 +1,6 @@
 package com.pavelhudau.sliderpuzzle;
 
+import com.pavelhudau.random.RandomSource;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
@@ -349,6 +350,22 @@ public class TestBoard {
         }
     }
 
+    @Test
+    void testTwinWithSeededRandomIsReproducible() {
+        int[][] tiles = {
+                {8, 1, 3},
+                {4, 0, 2},
+                {7, 6, 5}
+        };
+        for (long seed = 0; seed < 20; seed++) {
+            Board first = new Board(tiles, RandomSource.splittable(seed));
+            Board second = new Board(tiles, RandomSource.splittable(seed));
+            Board twin = first.twin();
+            assertTwins(first, twin);
+            assertEquals(twin, second.twin());
+        }
+    }
+
     private static void assertTwins(Board a, Board b) {
         assertFalse(a.equals(b));
     }